@@ -0,0 +1,160 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+// Streams a CSV in batches: rows are validated in parallel, then de-duplicated and inserted
+// in file order with one sequential append per batch. Rejected rows go to a report file.
+public class BulkImporter {
+    private static final int BATCH_SIZE = 10_000;
+
+    private final RentalSystem rentalSystem;
+
+    public BulkImporter(RentalSystem rentalSystem) {
+        this.rentalSystem = rentalSystem;
+    }
+
+    public static class Result {
+        private final int accepted;
+        private final int rejected;
+
+        Result(int accepted, int rejected) {
+            this.accepted = accepted;
+            this.rejected = rejected;
+        }
+
+        public int getAccepted() { return accepted; }
+        public int getRejected() { return rejected; }
+
+        @Override
+        public String toString() {
+            return "Imported: " + accepted + " | Rejected: " + rejected;
+        }
+    }
+
+    // Rows: type,plate,make,model,year,... (see VehicleCodec)
+    public Result importVehicles(Path csv, Path rejectReport) throws IOException {
+        return run(csv, rejectReport, "type", VehicleCodec::parse, Vehicle::getLicensePlate,
+                   "license plate", rentalSystem::addVehicles);
+    }
+
+    // Rows: id,name
+    public Result importCustomers(Path csv, Path rejectReport) throws IOException {
+        return run(csv, rejectReport, "id", BulkImporter::parseCustomer, Customer::getCustomerId,
+                   "customer ID", rentalSystem::addCustomers);
+    }
+
+    private static Customer parseCustomer(String line) {
+        String[] f = line.split(",", 2);
+        if (f.length < 2) throw new IllegalArgumentException("expected id,name");
+        int id;
+        try {
+            id = Integer.parseInt(f[0].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid customer ID: " + f[0]);
+        }
+        String name = f[1].trim();
+        if (name.isEmpty()) throw new IllegalArgumentException("missing name");
+        return new Customer(id, name);
+    }
+
+    private <T> Result run(Path csv, Path rejectReport, String headerPrefix, Function<String, T> parser,
+                           Function<T, Object> keyOf, String keyName, Function<List<T>, List<T>> insert)
+            throws IOException {
+        Map<Object, Integer> seenInFile = new HashMap<>();
+        int accepted = 0;
+        int rejected = 0;
+
+        try (BufferedReader in = Files.newBufferedReader(csv);
+             BufferedWriter report = Files.newBufferedWriter(rejectReport)) {
+            List<String> lines = new ArrayList<>(BATCH_SIZE);
+            int firstLine = 1;
+            int lineNo = 0;
+            String line;
+            while (true) {
+                line = in.readLine();
+                if (line != null) {
+                    lineNo++;
+                    if (lineNo == 1 && line.toLowerCase().startsWith(headerPrefix)) {
+                        firstLine = 2;
+                        continue;
+                    }
+                    lines.add(line);
+                }
+                if (lines.size() == BATCH_SIZE || (line == null && !lines.isEmpty())) {
+                    int[] counts = importBatch(lines, firstLine, parser, keyOf, keyName, insert, seenInFile, report);
+                    accepted += counts[0];
+                    rejected += counts[1];
+                    firstLine += lines.size();
+                    lines.clear();
+                }
+                if (line == null) break;
+            }
+        }
+        return new Result(accepted, rejected);
+    }
+
+    private <T> int[] importBatch(List<String> lines, int firstLine, Function<String, T> parser,
+                                  Function<T, Object> keyOf, String keyName, Function<List<T>, List<T>> insert,
+                                  Map<Object, Integer> seenInFile, BufferedWriter report) throws IOException {
+        int n = lines.size();
+        List<T> parsed = new ArrayList<>(n);
+        String[] reasons = new String[n];
+        for (int i = 0; i < n; i++) parsed.add(null);
+
+        // Validation is independent per row
+        IntStream.range(0, n).parallel().forEach(i -> {
+            try {
+                parsed.set(i, parser.apply(lines.get(i)));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                reasons[i] = e.getMessage();
+            }
+        });
+
+        // In-file duplicates are checked in file order so the first occurrence wins
+        List<T> candidates = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (reasons[i] != null) continue;
+            T row = parsed.get(i);
+            Object key = keyOf.apply(row);
+            Integer firstSeen = seenInFile.putIfAbsent(key, firstLine + i);
+            if (firstSeen != null) {
+                reasons[i] = "duplicate " + keyName + " " + key + " (first seen on line " + firstSeen + ")";
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        // The system's exact index rejects rows that clash with existing data
+        List<T> added = insert.apply(candidates);
+        if (added.size() != candidates.size()) {
+            Set<T> addedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            addedSet.addAll(added);
+            for (int i = 0; i < n; i++) {
+                if (reasons[i] == null && !addedSet.contains(parsed.get(i))) {
+                    reasons[i] = keyName + " " + keyOf.apply(parsed.get(i)) + " already exists";
+                }
+            }
+        }
+
+        int rejected = 0;
+        for (int i = 0; i < n; i++) {
+            if (reasons[i] != null) {
+                report.write("line " + (firstLine + i) + ": " + reasons[i] + " | " + lines.get(i));
+                report.newLine();
+                rejected++;
+            }
+        }
+        return new int[] { added.size(), rejected };
+    }
+}
@@ -11,8 +11,9 @@ public class Car extends Vehicle implements Rentable {
     }
 
     @Override
-    public String getInfo() {
-        return super.getInfo() + " | Seats: " + numSeats;
+    public void appendTo(StringBuilder out, VehicleStatus status) {
+        super.appendTo(out, status);
+        out.append(" | Seats: ").append(numSeats);
     }
 
     @Override
@@ -26,4 +27,4 @@ public class Car extends Vehicle implements Rentable {
         setStatus(VehicleStatus.Available);
         System.out.println("Car " + getLicensePlate() + " has been returned.");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// Immutable list stored as fixed-size chunks. append/set copy only the touched chunk and
+// the chunk index, so successive versions share every other chunk.
+public final class ChunkedList<T> extends AbstractList<T> {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final ChunkedList<Object> EMPTY = new ChunkedList<>(new Object[0][], 0);
+
+    private final Object[][] chunks;
+    private final int size;
+
+    private ChunkedList(Object[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ChunkedList<T> empty() {
+        return (ChunkedList<T>) EMPTY;
+    }
+
+    public static <T> ChunkedList<T> of(List<T> values) {
+        int count = values.size();
+        Object[][] chunks = new Object[(count + CHUNK_MASK) >> CHUNK_BITS][];
+        for (int c = 0; c < chunks.length; c++) {
+            int from = c << CHUNK_BITS;
+            chunks[c] = values.subList(from, Math.min(count, from + CHUNK_SIZE)).toArray();
+        }
+        return new ChunkedList<>(chunks, count);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return (T) chunks[index >> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public ChunkedList<T> append(T value) {
+        int chunk = size >> CHUNK_BITS;
+        int offset = size & CHUNK_MASK;
+        Object[][] newChunks;
+        if (offset == 0) {
+            newChunks = new Object[chunks.length + 1][];
+            System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+            newChunks[chunk] = new Object[1];
+        } else {
+            newChunks = chunks.clone();
+            Object[] last = new Object[offset + 1];
+            System.arraycopy(chunks[chunk], 0, last, 0, offset);
+            newChunks[chunk] = last;
+        }
+        newChunks[chunk][offset] = value;
+        return new ChunkedList<>(newChunks, size + 1);
+    }
+
+    public ChunkedList<T> appendAll(List<T> values) {
+        if (values.isEmpty()) return this;
+        int offset = size & CHUNK_MASK;
+        int fill = offset == 0 ? 0 : Math.min(CHUNK_SIZE - offset, values.size());
+        ChunkedList<T> rest = of(values.subList(fill, values.size()));
+
+        Object[][] newChunks = new Object[chunks.length + rest.chunks.length][];
+        System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+        if (fill > 0) {
+            // Top up the partial last chunk first so later chunks stay aligned
+            int last = chunks.length - 1;
+            Object[] topped = Arrays.copyOf(chunks[last], offset + fill);
+            for (int i = 0; i < fill; i++) {
+                topped[offset + i] = values.get(i);
+            }
+            newChunks[last] = topped;
+        }
+        System.arraycopy(rest.chunks, 0, newChunks, chunks.length, rest.chunks.length);
+        return new ChunkedList<>(newChunks, size + values.size());
+    }
+
+    @Override
+    public T set(int index, T value) {
+        throw new UnsupportedOperationException("ChunkedList is immutable, use with()");
+    }
+
+    public ChunkedList<T> with(int index, T value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        Object[][] newChunks = chunks.clone();
+        int chunk = index >> CHUNK_BITS;
+        newChunks[chunk] = chunks[chunk].clone();
+        newChunks[chunk][index & CHUNK_MASK] = value;
+        return new ChunkedList<>(newChunks, size);
+    }
+}
@@ -0,0 +1,125 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+// Buffers listing output and writes it to a channel in large blocks.
+// Rows are appended straight into a reused StringBuilder and encoded into a reused ByteBuffer,
+// so printing a row allocates nothing. Callers must flush() when the listing is done.
+public class ConsoleWriter {
+    private static final int BLOCK_CHARS = 64 * 1024;
+    private static ConsoleWriter stdout;
+
+    private final WritableByteChannel channel;
+    private final boolean systemOut;
+    private final CharsetEncoder encoder;
+    private final String lineSeparator = System.lineSeparator();
+    private final StringBuilder pending = new StringBuilder(BLOCK_CHARS + 1024);
+    private final CharBuffer chars = CharBuffer.allocate(BLOCK_CHARS);
+    private final ByteBuffer bytes;
+
+    public ConsoleWriter(WritableByteChannel channel, Charset charset) {
+        this(channel, charset, false);
+    }
+
+    private ConsoleWriter(WritableByteChannel channel, Charset charset, boolean systemOut) {
+        this.channel = channel;
+        this.systemOut = systemOut;
+        // Same replacement behaviour as PrintStream for characters the console cannot show
+        this.encoder = charset.newEncoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocateDirect((int) (BLOCK_CHARS * encoder.maxBytesPerChar()));
+    }
+
+    // Shared writer over the process's standard output, encoded like System.out
+    public static synchronized ConsoleWriter stdout() {
+        if (stdout == null) {
+            String encoding = System.getProperty("stdout.encoding");
+            Charset charset = encoding != null ? Charset.forName(encoding) : Charset.defaultCharset();
+            stdout = new ConsoleWriter(new FileOutputStream(FileDescriptor.out).getChannel(), charset, true);
+        }
+        return stdout;
+    }
+
+    public synchronized void println(String line) {
+        pending.append(line);
+        endLine();
+    }
+
+    public synchronized void println(Renderable row) {
+        row.appendTo(pending);
+        endLine();
+    }
+
+    // Vehicle row showing the status recorded in a snapshot rather than the live one
+    public synchronized void println(Vehicle vehicle, Vehicle.VehicleStatus status) {
+        vehicle.appendTo(pending, status);
+        endLine();
+    }
+
+    private void endLine() {
+        pending.append(lineSeparator);
+        if (pending.length() >= BLOCK_CHARS) {
+            writePending();
+        }
+    }
+
+    public synchronized void flush() {
+        writePending();
+    }
+
+    private void writePending() {
+        if (pending.length() == 0) return;
+        try {
+            if (systemOut) {
+                System.out.flush(); // anything printed earlier must reach the console first
+            }
+            int offset = 0;
+            int length = pending.length();
+            while (offset < length) {
+                int count = Math.min(chars.remaining(), length - offset);
+                pending.getChars(offset, offset + count, chars.array(), chars.position());
+                chars.position(chars.position() + count);
+                offset += count;
+                chars.flip();
+                encode(offset == length);
+                chars.compact(); // keeps half of a surrogate pair split across blocks
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing to console: " + e.getMessage());
+        } finally {
+            pending.setLength(0);
+            chars.clear();
+            encoder.reset();
+        }
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        CoderResult result = encoder.encode(chars, bytes, endOfInput);
+        while (result.isOverflow()) {
+            drain();
+            result = encoder.encode(chars, bytes, endOfInput);
+        }
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+        }
+        drain();
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
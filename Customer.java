@@ -1,4 +1,4 @@
-public class Customer {
+public class Customer implements Renderable {
     private int customerId;
     private String name;
 
@@ -15,8 +15,15 @@ public class Customer {
     	return name;
     }
 
+    @Override
+    public void appendTo(StringBuilder out) {
+        out.append("Customer ID: ").append(customerId).append(" | Name: ").append(name);
+    }
+
     @Override
     public String toString() {
-        return "Customer ID: " + customerId + " | Name: " + name;
+        StringBuilder text = new StringBuilder(48);
+        appendTo(text);
+        return text.toString();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
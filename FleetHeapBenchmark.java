@@ -0,0 +1,73 @@
+// Compares heap held by a generated fleet against the same fleet keeping its own make/model strings.
+// Usage: java FleetHeapBenchmark [vehicleCount]
+public class FleetHeapBenchmark {
+    private static final String[][] MODELS = {
+        {"toyota", "corolla", "camry", "rav4"},
+        {"honda", "civic", "accord", "cr-v"},
+        {"ford", "focus", "f-150", "transit"},
+        {"chevrolet", "malibu", "silverado", "express"},
+        {"nissan", "altima", "frontier", "nv3500"},
+    };
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long before = usedHeap();
+        Vehicle[] fleet = new Vehicle[count];
+        for (int i = 0; i < count; i++) {
+            String[] row = MODELS[i % MODELS.length];
+            // new String mimics the loader producing a fresh copy per line
+            String make = new String(row[0]);
+            String model = new String(row[1 + (i / MODELS.length) % 3]);
+            Vehicle v = new Car(make, model, 2015 + i % 10, 5);
+            v.setLicensePlate(plateFor(i));
+            fleet[i] = v;
+        }
+        long shared = usedHeap() - before;
+
+        // Per-vehicle copies, as each Vehicle held before the catalog
+        String[] makes = new String[count];
+        String[] models = new String[count];
+        for (int i = 0; i < count; i++) {
+            makes[i] = VehicleCatalog.capitalize(new String(fleet[i].getMake().toLowerCase()));
+            models[i] = VehicleCatalog.capitalize(new String(fleet[i].getModel().toLowerCase()));
+        }
+        long duplicated = usedHeap() - before - shared;
+
+        System.out.println("Vehicles:                 " + count);
+        System.out.println("Catalog specs:            " + VehicleCatalog.getInstance().size());
+        System.out.println("Distinct make/model:      " + VehicleCatalog.getInstance().getDistinctNames());
+        System.out.println("Fleet heap with catalog:  " + mb(shared) + " MB");
+        System.out.println("Extra for per-row copies: " + mb(duplicated) + " MB");
+        System.out.println("Saved:                    " + mb(duplicated) + " MB ("
+                + (100 * duplicated / (shared + duplicated)) + "% of the uncached fleet)");
+
+        // Keep everything reachable until measured
+        if (fleet[count - 1] == null || makes[0] == null || models[0] == null) System.out.println();
+    }
+
+    private static String plateFor(int i) {
+        char[] plate = new char[6];
+        int letters = i / 1000;
+        plate[0] = (char) ('A' + letters / 676 % 26);
+        plate[1] = (char) ('A' + letters / 26 % 26);
+        plate[2] = (char) ('A' + letters % 26);
+        int digits = i % 1000;
+        plate[3] = (char) ('0' + digits / 100);
+        plate[4] = (char) ('0' + digits / 10 % 10);
+        plate[5] = (char) ('0' + digits % 10);
+        return new String(plate);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.1f", bytes / (1024.0 * 1024.0));
+    }
+}
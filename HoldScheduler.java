@@ -0,0 +1,101 @@
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Hashed timing wheel: O(1) schedule and cancel, driven by a single daemon thread.
+// Cancelled holds are dropped lazily when their bucket comes around.
+public class HoldScheduler {
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<VehicleHold>[] wheel;
+    private final Queue<VehicleHold> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<VehicleHold> onExpire;
+
+    private long startNanos;
+    private long tick; // only read/written by the scheduler thread
+    private Thread worker;
+    private boolean shutdown;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HoldScheduler(long tickMillis, int wheelSize, Consumer<VehicleHold> onExpire) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be > 0");
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("Wheel size must be a power of two");
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = wheelSize - 1;
+        this.wheel = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.onExpire = onExpire;
+    }
+
+    public void schedule(VehicleHold hold) {
+        incoming.add(hold);
+        ensureStarted();
+    }
+
+    private synchronized void ensureStarted() {
+        if (worker != null || shutdown) return;
+        startNanos = System.nanoTime();
+        worker = new Thread(this::run, "vehicle-hold-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Stops the scheduler thread; pending holds are no longer expired
+    synchronized void shutdown() {
+        shutdown = true;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            long wait = startNanos + tick * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            transferIncoming();
+            expireBucket(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        VehicleHold hold;
+        while ((hold = incoming.poll()) != null) {
+            if (!hold.isPending()) continue;
+            long due = (hold.getDeadlineNanos() - startNanos + tickNanos - 1) / tickNanos;
+            if (due < tick) due = tick;
+            hold.remainingRounds = (due - tick) / wheel.length;
+            wheel[(int) (due & mask)].add(hold);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<VehicleHold> bucket) {
+        Iterator<VehicleHold> it = bucket.iterator();
+        while (it.hasNext()) {
+            VehicleHold hold = it.next();
+            if (!hold.isPending()) {
+                it.remove();
+            } else if (hold.remainingRounds > 0) {
+                hold.remainingRounds--;
+            } else {
+                it.remove();
+                try {
+                    onExpire.accept(hold);
+                } catch (RuntimeException e) {
+                    System.out.println("Error expiring hold: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
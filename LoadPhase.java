@@ -0,0 +1,72 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadPhase {
+    public enum State { Pending, Running, Done, Failed }
+
+    private final String name;
+    private final AtomicLong itemsLoaded = new AtomicLong();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile State state = State.Pending;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public LoadPhase(String name) {
+        this.name = name;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        state = State.Running;
+    }
+
+    void itemLoaded() {
+        itemsLoaded.incrementAndGet();
+    }
+
+    void finish() {
+        end(State.Done);
+    }
+
+    void fail() {
+        end(State.Failed);
+    }
+
+    private void end(State result) {
+        endNanos = System.nanoTime();
+        state = result;
+        finished.countDown();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getItemsLoaded() {
+        return itemsLoaded.get();
+    }
+
+    public boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+
+    public long getElapsedMillis() {
+        if (state == State.Pending) return 0;
+        long end = isFinished() ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + state + " (" + itemsLoaded.get() + " loaded, " + getElapsedMillis() + " ms)";
+    }
+}
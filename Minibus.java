@@ -6,9 +6,14 @@ public class Minibus extends Vehicle implements Rentable {
         this.isAccessible = isAccessible;
     }
 
+    public boolean isAccessible() {
+        return isAccessible;
+    }
+
     @Override
-    public String getInfo() {
-        return super.getInfo() + " | Accessible: " + (isAccessible ? "Yes" : "No");
+    public void appendTo(StringBuilder out, VehicleStatus status) {
+        super.appendTo(out, status);
+        out.append(" | Accessible: ").append(isAccessible ? "Yes" : "No");
     }
 
     @Override
@@ -0,0 +1,79 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Active RENT records indexed by vehicle, by customer and by due date.
+// opened/closed are idempotent so they can race safely with a rebuild.
+public class OpenRentalIndex {
+    private final Map<String, RentalRecord> byVehicle = new HashMap<>();
+    private final Map<Integer, Set<RentalRecord>> byCustomer = new HashMap<>();
+    private final TreeSet<RentalRecord> byDueDate = new TreeSet<>(
+            Comparator.comparing(RentalRecord::getDueDate)
+                      .thenComparing(r -> r.getVehicle().getLicensePlate()));
+
+    public synchronized void opened(RentalRecord rent) {
+        remove(rent.getVehicle().getLicensePlate());
+        byVehicle.put(rent.getVehicle().getLicensePlate(), rent);
+        byCustomer.computeIfAbsent(rent.getCustomer().getCustomerId(), id -> new LinkedHashSet<>()).add(rent);
+        byDueDate.add(rent);
+    }
+
+    public synchronized RentalRecord closed(String licensePlate) {
+        return remove(licensePlate);
+    }
+
+    private RentalRecord remove(String licensePlate) {
+        RentalRecord rent = byVehicle.remove(licensePlate);
+        if (rent == null) return null;
+        Set<RentalRecord> open = byCustomer.get(rent.getCustomer().getCustomerId());
+        if (open != null) {
+            open.remove(rent);
+            if (open.isEmpty()) byCustomer.remove(rent.getCustomer().getCustomerId());
+        }
+        byDueDate.remove(rent);
+        return rent;
+    }
+
+    public synchronized RentalRecord findByVehicle(String licensePlate) {
+        return byVehicle.get(licensePlate);
+    }
+
+    public synchronized List<RentalRecord> findByCustomer(int customerId) {
+        Set<RentalRecord> open = byCustomer.get(customerId);
+        return open == null ? new ArrayList<>() : new ArrayList<>(open);
+    }
+
+    // Rentals due strictly before the given date, earliest first
+    public synchronized List<RentalRecord> findOverdue(LocalDate today) {
+        List<RentalRecord> result = new ArrayList<>();
+        for (RentalRecord rent : byDueDate) {
+            if (!rent.getDueDate().isBefore(today)) break;
+            result.add(rent);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return byVehicle.size();
+    }
+
+    // Replays the full history in order: RENT opens, RETURN closes
+    public synchronized void rebuild(List<RentalRecord> history) {
+        byVehicle.clear();
+        byCustomer.clear();
+        byDueDate.clear();
+        for (RentalRecord record : history) {
+            if ("RENT".equals(record.getRecordType())) {
+                opened(record);
+            } else if ("RETURN".equals(record.getRecordType())) {
+                remove(record.getVehicle().getLicensePlate());
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Splits the fleet into plate-hash shards, each a RentalSystem with its own lock, indexes and
+// files under <baseDir>/shard-N. Requests for a plate go to its shard; fleet-wide queries fan out.
+// Customers are reference data and are copied to every shard.
+public class PartitionedRentalSystem implements AutoCloseable {
+    private static final String SHARD_COUNT_FILE = "shards.txt";
+
+    private final RentalSystem[] partitions;
+    private final ExecutorService fanOut;
+
+    public PartitionedRentalSystem(Path baseDir, int shardCount) throws IOException {
+        if (shardCount < 1) throw new IllegalArgumentException("Shard count must be >= 1");
+        checkShardCount(Files.createDirectories(baseDir), shardCount);
+        partitions = new RentalSystem[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            Path dir = Files.createDirectories(baseDir.resolve("shard-" + i));
+            partitions[i] = RentalSystem.createPartition(dir);
+        }
+        fanOut = Executors.newFixedThreadPool(shardCount, r -> {
+            Thread t = new Thread(r, "partition-query");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Plates are routed by hash modulo the shard count, so reopening with a different count
+    // would send lookups to the wrong shard. The count is fixed when the base directory is first used.
+    private static void checkShardCount(Path baseDir, int shardCount) throws IOException {
+        Path countFile = baseDir.resolve(SHARD_COUNT_FILE);
+        int stored;
+        if (Files.exists(countFile)) {
+            stored = Integer.parseInt(Files.readString(countFile).trim());
+        } else {
+            // Directories laid out before the count was recorded
+            stored = 0;
+            while (Files.isDirectory(baseDir.resolve("shard-" + stored))) stored++;
+            if (stored == 0) stored = shardCount;
+            Files.writeString(countFile, stored + System.lineSeparator());
+        }
+        if (stored != shardCount) {
+            throw new IllegalStateException(baseDir + " was created with " + stored
+                    + " shards; reopening it with " + shardCount + " would misroute plates");
+        }
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    public RentalSystem partitionFor(String licensePlate) {
+        return partitions[Math.floorMod(licensePlate.toUpperCase().hashCode(), partitions.length)];
+    }
+
+    // ------------------ VEHICLES ------------------
+    public boolean addVehicle(Vehicle vehicle) {
+        if (vehicle.getLicensePlate() == null) {
+            System.out.println("Vehicle has no license plate. Vehicle not added.");
+            return false;
+        }
+        return partitionFor(vehicle.getLicensePlate()).addVehicle(vehicle);
+    }
+
+    public Vehicle findVehicleByPlate(String plate) {
+        if (plate == null) return null;
+        return partitionFor(plate).findVehicleByPlate(plate);
+    }
+
+    // ------------------ CUSTOMERS ------------------
+    // Checked against every shard first so a rejected customer is never left in some of them
+    public synchronized boolean addCustomer(Customer customer) {
+        for (RentalSystem partition : partitions) {
+            if (partition.findCustomerById(customer.getCustomerId()) != null) {
+                System.out.println("Duplicate customer ID. Customer not added.");
+                return false;
+            }
+        }
+        for (RentalSystem partition : partitions) {
+            partition.addCustomers(List.of(customer)); // quiet batch path, one message below
+        }
+        System.out.println("Customer added successfully.");
+        return true;
+    }
+
+    public Customer findCustomerById(int id) {
+        return partitions[0].findCustomerById(id);
+    }
+
+    // ------------------ RENTAL ------------------
+    public boolean rentVehicle(Vehicle vehicle, Customer customer, LocalDate date, double amount) {
+        return partitionFor(vehicle.getLicensePlate()).rentVehicle(vehicle, customer, date, amount);
+    }
+
+    public boolean returnVehicle(Vehicle vehicle, Customer customer, LocalDate date, double extraFees) {
+        return partitionFor(vehicle.getLicensePlate()).returnVehicle(vehicle, customer, date, extraFees);
+    }
+
+    // ------------------ FLEET-WIDE QUERIES ------------------
+    public List<Vehicle> findVehicles(Vehicle.VehicleStatus status) {
+        List<Vehicle> result = new ArrayList<>();
+        for (List<Vehicle> part : fanOut(p -> p.snapshot().getVehicles(status))) {
+            result.addAll(part);
+        }
+        result.sort(Comparator.comparing(Vehicle::getLicensePlate));
+        return result;
+    }
+
+    // Sum of rental amounts and return fees across every shard
+    public double getTotalRevenue() {
+        double total = 0;
+        for (Double part : fanOut(PartitionedRentalSystem::revenueOf)) {
+            total += part;
+        }
+        return total;
+    }
+
+    public List<RentalRecord> findOverdueRentals(LocalDate today) {
+        List<RentalRecord> result = new ArrayList<>();
+        for (List<RentalRecord> part : fanOut(p -> p.findOverdueRentals(today))) {
+            result.addAll(part);
+        }
+        result.sort(Comparator.comparing(RentalRecord::getDueDate));
+        return result;
+    }
+
+    private static double revenueOf(RentalSystem partition) {
+        try {
+            partition.getLoadPhases().get(2).await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double total = 0;
+        for (RentalRecord record : partition.snapshot().getHistory().getRentalHistory()) {
+            total += record.getTotalAmount();
+        }
+        return total;
+    }
+
+    private <T> List<T> fanOut(Function<RentalSystem, T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (RentalSystem partition : partitions) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(partition), fanOut));
+        }
+        List<T> results = new ArrayList<>();
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        fanOut.shutdown();
+        for (RentalSystem partition : partitions) {
+            partition.shutdown();
+        }
+    }
+}
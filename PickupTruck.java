@@ -18,8 +18,9 @@ public class PickupTruck extends Vehicle implements Rentable {
     }
 
     @Override
-    public String getInfo() {
-        return super.getInfo() + " | Cargo Size: " + cargoSize + " | Has Trailer: " + (hasTrailer ? "Yes" : "No");
+    public void appendTo(StringBuilder out, VehicleStatus status) {
+        super.appendTo(out, status);
+        out.append(" | Cargo Size: ").append(cargoSize).append(" | Has Trailer: ").append(hasTrailer ? "Yes" : "No");
     }
 
     @Override
@@ -33,4 +34,4 @@ public class PickupTruck extends Vehicle implements Rentable {
         setStatus(VehicleStatus.Available);
         System.out.println("Pickup Truck " + getLicensePlate() + " has been returned.");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
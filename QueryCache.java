@@ -0,0 +1,179 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// Size-bounded LRU cache for query results. Each entry is tagged (e.g. "plate:ABC123") and a
+// mutation invalidates only the entries carrying the tags it touched.
+public class QueryCache {
+    private static final long ENTRY_OVERHEAD = 96; // entry, key and list headers, roughly
+    private static final long TAG_OVERHEAD = 64;   // map node, tag string and boxed time
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByTag = new HashMap<>();
+    // Only kept while a load that started earlier is still running, so it stays small
+    private final Map<String, Long> tagInvalidatedAt = new HashMap<>();
+    private final TreeMap<Long, Integer> loadsInFlight = new TreeMap<>(); // startedAt -> count
+    private long clock;
+    private long clearedAt = -1;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private static class Entry {
+        final List<?> value;
+        final Set<String> tags;
+        final long size;
+
+        Entry(String key, List<?> value, Set<String> tags) {
+            this.value = value;
+            this.tags = tags;
+            this.size = ENTRY_OVERHEAD + 2L * key.length() + 8L * value.size();
+        }
+    }
+
+    public QueryCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String key, Set<String> tags, Supplier<List<T>> loader) {
+        long startedAt;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return (List<T>) entry.value;
+            }
+            misses++;
+            startedAt = clock;
+            loadsInFlight.merge(startedAt, 1, Integer::sum);
+        }
+
+        // Computed outside the lock; dropped if one of its tags was invalidated meanwhile
+        List<T> value = null;
+        try {
+            value = Collections.unmodifiableList(loader.get());
+        } finally {
+            synchronized (this) {
+                if (value != null) {
+                    store(key, tags, value, startedAt);
+                }
+                loadFinished(startedAt);
+            }
+        }
+        return value;
+    }
+
+    private void store(String key, Set<String> tags, List<?> value, long startedAt) {
+        if (clearedAt >= startedAt) return;
+        for (String tag : tags) {
+            if (tagInvalidatedAt.getOrDefault(tag, -1L) >= startedAt) return;
+        }
+        Entry previous = entries.remove(key);
+        if (previous != null) unlink(key, previous);
+        Entry entry = new Entry(key, value, tags);
+        entries.put(key, entry);
+        bytes += entry.size;
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+        }
+        evictIfNeeded();
+    }
+
+    // Invalidations older than every running load can no longer make a result stale
+    private void loadFinished(long startedAt) {
+        loadsInFlight.computeIfPresent(startedAt, (k, n) -> n == 1 ? null : n - 1);
+        if (loadsInFlight.isEmpty()) {
+            tagInvalidatedAt.clear();
+        } else {
+            long oldest = loadsInFlight.firstKey();
+            tagInvalidatedAt.values().removeIf(at -> at < oldest);
+        }
+    }
+
+    public synchronized void invalidate(String tag) {
+        if (!loadsInFlight.isEmpty()) {
+            tagInvalidatedAt.put(tag, clock);
+        }
+        clock++;
+        Set<String> keys = keysByTag.remove(tag);
+        if (keys == null) return;
+        for (String key : keys) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                invalidations++;
+                unlink(key, entry);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        keysByTag.clear();
+        tagInvalidatedAt.clear();
+        clearedAt = clock++;
+        bytes = 0;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            it.remove();
+            unlink(eldest.getKey(), eldest.getValue());
+            evictions++;
+        }
+    }
+
+    private void unlink(String key, Entry entry) {
+        bytes -= entry.size;
+        for (String tag : entry.tags) {
+            Set<String> keys = keysByTag.get(tag);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) keysByTag.remove(tag);
+            }
+        }
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getInvalidations() { return invalidations; }
+    public synchronized int size() { return entries.size(); }
+    synchronized int getTrackedInvalidations() { return tagInvalidatedAt.size(); }
+
+    // Estimated bytes held by cached result lists (the vehicles and records themselves are shared)
+    // and by invalidation times kept for running loads
+    public synchronized long getMemoryUsed() {
+        long tracked = 0;
+        for (String tag : tagInvalidatedAt.keySet()) {
+            tracked += TAG_OVERHEAD + 2L * tag.length();
+        }
+        return bytes + tracked;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Entries: " + entries.size() + " | Hit rate: " + String.format("%.1f%%", getHitRate() * 100)
+               + " | Evictions: " + evictions + " | Invalidations: " + invalidations + " | Memory: " + bytes + " bytes";
+    }
+}
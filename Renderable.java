@@ -0,0 +1,4 @@
+// Anything that can write its display text into a caller-owned buffer
+public interface Renderable {
+    void appendTo(StringBuilder out);
+}
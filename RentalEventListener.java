@@ -0,0 +1,9 @@
+// Callbacks fire on the writer's thread after the change is persisted, in commit order
+public interface RentalEventListener {
+    default void vehicleAdded(Vehicle vehicle) {}
+    default void customerAdded(Customer customer) {}
+    default void vehicleRented(RentalRecord record) {}
+    default void vehicleReturned(RentalRecord record) {}
+    default void statusChanged(Vehicle vehicle) {}
+    default void holdExpired(VehicleHold hold) {}
+}
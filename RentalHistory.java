@@ -1,17 +1,61 @@
 import java.util.List;
 import java.util.ArrayList;
 
+// Readers work on an immutable ChunkedList and never lock; writers publish a new version.
 public class RentalHistory {
-    private List<RentalRecord> rentalRecords = new ArrayList<>();
+    private volatile ChunkedList<RentalRecord> rentalRecords;
+    private volatile boolean complete;
 
-    public void addRecord(RentalRecord record) {
-        rentalRecords.add(record);
+    public RentalHistory() {
+        this(ChunkedList.empty(), true);
     }
 
+    RentalHistory(ChunkedList<RentalRecord> records, boolean complete) {
+        this.rentalRecords = records;
+        this.complete = complete;
+    }
+
+    public synchronized void addRecord(RentalRecord record) {
+        rentalRecords = rentalRecords.append(record);
+    }
+
+    // Immutable; later records are not visible through the returned list
     public List<RentalRecord> getRentalHistory() {
         return rentalRecords;
     }
 
+    ChunkedList<RentalRecord> records() {
+        return rentalRecords;
+    }
+
+    public boolean isEmpty() {
+        return rentalRecords.isEmpty();
+    }
+
+    // False while older records are still being loaded; query results are partial until then
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public synchronized void awaitComplete() throws InterruptedException {
+        while (!complete) {
+            wait();
+        }
+    }
+
+    synchronized void startLoading() {
+        complete = false;
+    }
+
+    // Loaded records are older than anything added while loading, so they go first
+    synchronized void finishLoading(List<RentalRecord> loaded) {
+        List<RentalRecord> all = new ArrayList<>(loaded);
+        all.addAll(rentalRecords);
+        rentalRecords = ChunkedList.of(all);
+        complete = true;
+        notifyAll();
+    }
+
     public List<RentalRecord> getRentalRecordsByCustomer(String customerName) {
         List<RentalRecord> result = new ArrayList<>();
         for (RentalRecord record : rentalRecords) {
@@ -22,6 +66,16 @@ public class RentalHistory {
         return result;
     }
 
+    public List<RentalRecord> getRentalRecordsByCustomerId(int customerId) {
+        List<RentalRecord> result = new ArrayList<>();
+        for (RentalRecord record : rentalRecords) {
+            if (record.getCustomer().getCustomerId() == customerId) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
     public List<RentalRecord> getRentalRecordsByVehicle(String licensePlate) {
         List<RentalRecord> result = new ArrayList<>();
         for (RentalRecord record : rentalRecords) {
@@ -31,4 +85,4 @@ public class RentalHistory {
         }
         return result;
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,25 @@
 import java.time.LocalDate;
 
-public class RentalRecord {
+public class RentalRecord implements Renderable {
     private Vehicle vehicle;
     private Customer customer;
     private LocalDate recordDate;
     private double totalAmount;
     private String recordType; // "RENT" or "RETURN"
+    private LocalDate dueDate; // only set on RENT records
 
     public RentalRecord(Vehicle vehicle, Customer customer, LocalDate recordDate, double totalAmount, String recordType) {
+        this(vehicle, customer, recordDate, totalAmount, recordType, null);
+    }
+
+    public RentalRecord(Vehicle vehicle, Customer customer, LocalDate recordDate, double totalAmount, String recordType,
+                        LocalDate dueDate) {
         this.vehicle = vehicle;
         this.customer = customer;
         this.recordDate = recordDate;
         this.totalAmount = totalAmount;
         this.recordType = recordType;
+        this.dueDate = dueDate;
     }
 
     public Customer getCustomer(){
@@ -34,12 +41,51 @@ public class RentalRecord {
     public String getRecordType() {
         return recordType;
     }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
     
+    @Override
+    public void appendTo(StringBuilder out) {
+        out.append(recordType).append(" | Plate: ").append(vehicle.getLicensePlate())
+           .append(" | Customer: ").append(customer.getCustomerName())
+           .append(" | Date: ");
+        appendDate(out, recordDate);
+        out.append(" | Amount: $").append(totalAmount);
+    }
+
     @Override
     public String toString() {
-        return recordType + " | Plate: " + vehicle.getLicensePlate() + 
-               " | Customer: " + customer.getCustomerName() + 
-               " | Date: " + recordDate + 
-               " | Amount: $" + totalAmount;
+        StringBuilder text = new StringBuilder(80);
+        appendTo(text);
+        return text.toString();
+    }
+
+    // Same text as LocalDate.toString() (ISO yyyy-MM-dd) without the intermediate String
+    private static void appendDate(StringBuilder out, LocalDate date) {
+        if (date == null) {
+            out.append("null");
+            return;
+        }
+        int year = date.getYear();
+        int absYear = Math.abs(year);
+        if (year > 9999) {
+            out.append('+');
+        } else if (year < 0) {
+            out.append('-');
+        }
+        for (int pad = 1000; pad > 1 && absYear < pad; pad /= 10) {
+            out.append('0');
+        }
+        out.append(absYear).append('-');
+        appendTwoDigits(out, date.getMonthValue());
+        out.append('-');
+        appendTwoDigits(out, date.getDayOfMonth());
+    }
+
+    private static void appendTwoDigits(StringBuilder out, int value) {
+        if (value < 10) out.append('0');
+        out.append(value);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
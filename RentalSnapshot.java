@@ -0,0 +1,80 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable, versioned view of the fleet, customers and rental history. Readers can hold on to
+// one and iterate it without locking; it is garbage collected once nobody references it.
+public final class RentalSnapshot {
+    private final long version;
+    private final ChunkedList<Vehicle> vehicles;
+    private final ChunkedList<Vehicle.VehicleStatus> statuses; // statuses.get(i) is the status of vehicles.get(i)
+    private final ChunkedList<Customer> customers;
+    private final ChunkedList<RentalRecord> history;
+    private final boolean historyComplete;
+
+    RentalSnapshot(long version, ChunkedList<Vehicle> vehicles, ChunkedList<Vehicle.VehicleStatus> statuses,
+                   ChunkedList<Customer> customers, ChunkedList<RentalRecord> history, boolean historyComplete) {
+        this.version = version;
+        this.vehicles = vehicles;
+        this.statuses = statuses;
+        this.customers = customers;
+        this.history = history;
+        this.historyComplete = historyComplete;
+    }
+
+    static RentalSnapshot empty() {
+        return new RentalSnapshot(0, ChunkedList.empty(), ChunkedList.empty(), ChunkedList.empty(),
+                                  ChunkedList.empty(), true);
+    }
+
+    RentalSnapshot withVehicles(List<Vehicle> added) {
+        List<Vehicle.VehicleStatus> addedStatuses = new ArrayList<>(added.size());
+        for (Vehicle v : added) {
+            addedStatuses.add(v.getStatus());
+        }
+        return new RentalSnapshot(version + 1, vehicles.appendAll(added), statuses.appendAll(addedStatuses),
+                                  customers, history, historyComplete);
+    }
+
+    RentalSnapshot withStatus(int slot, Vehicle.VehicleStatus status) {
+        return new RentalSnapshot(version + 1, vehicles, statuses.with(slot, status), customers, history, historyComplete);
+    }
+
+    RentalSnapshot withCustomers(List<Customer> added) {
+        return new RentalSnapshot(version + 1, vehicles, statuses, customers.appendAll(added), history, historyComplete);
+    }
+
+    RentalSnapshot withHistory(ChunkedList<RentalRecord> newHistory, boolean complete) {
+        return new RentalSnapshot(version + 1, vehicles, statuses, customers, newHistory, complete);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Vehicle> getVehicles() {
+        return vehicles;
+    }
+
+    public Vehicle.VehicleStatus getStatus(int slot) {
+        return statuses.get(slot);
+    }
+
+    // Vehicles with the given status as of this version; null means all
+    public List<Vehicle> getVehicles(Vehicle.VehicleStatus status) {
+        List<Vehicle> result = new ArrayList<>();
+        for (int i = 0; i < vehicles.size(); i++) {
+            if (status == null || statuses.get(i) == status) {
+                result.add(vehicles.get(i));
+            }
+        }
+        return result;
+    }
+
+    public List<Customer> getCustomers() {
+        return customers;
+    }
+
+    public RentalHistory getHistory() {
+        return new RentalHistory(history, historyComplete);
+    }
+}
@@ -7,19 +7,93 @@ import java.io.PrintWriter;
 import java.io.FileReader;
 import java.io.BufferedReader;
 import java.io.IOException; 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 public class RentalSystem {
+    public static final int DEFAULT_RENTAL_DAYS = 7;
+    private static final int BULK_WRITE_BUFFER = 1 << 20;
+
+    private static final String STANDBY_MARKER = "standby.marker";
+    private static final List<String> DATA_FILES =
+            List.of("vehicles.txt", "customers.txt", "rental_records.txt", "vehicle_status.log");
+
     private static RentalSystem instance;
 
-    private List<Vehicle> vehicles;
-    private List<Customer> customers;
-    private List<RentalRecord> rentalHistory;
+    private final Path dataDir;
+    private volatile boolean standby;  // read-only replica fed by ReplicationStandby
+    private boolean replaying;         // set while a replicated mutation is being applied
+
+    // Readers iterate the current snapshot without locking; writers hold the RentalSystem
+    // monitor and publish a new version that shares unchanged chunks with the old one.
+    private volatile RentalSnapshot snapshot = RentalSnapshot.empty();
+    private RentalHistory rentalHistory;
+    private final Map<String, Vehicle> vehiclesByPlate = new ConcurrentHashMap<>();
+    private final Map<String, Integer> vehicleSlots = new HashMap<>(); // plate -> position in the snapshot
+    private final Map<Integer, Customer> customersById = new ConcurrentHashMap<>();
+
+    private final long startupNanos = System.nanoTime();
+    private long readyNanos;
+    private final LoadPhase vehiclesPhase = new LoadPhase("vehicles");
+    private final LoadPhase customersPhase = new LoadPhase("customers");
+    private final LoadPhase historyPhase = new LoadPhase("rental records");
+    private long historyBytes; // size of rental_records.txt before the system became usable
+
+    private final Map<String, VehicleHold> holds = new ConcurrentHashMap<>();
+    private final HoldScheduler holdScheduler = new HoldScheduler(100, 512, this::expireHold);
+    private final List<RentalEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final OpenRentalIndex openRentals = new OpenRentalIndex();
+
+    private final QueryCache queryCache = new QueryCache(Integer.getInteger("rental.queryCacheEntries", 1024), 64L << 20);
+    private final VehicleStatusLog statusLog;
+    private final Object compactionLock = new Object();
+    private ScheduledExecutorService compactor;
 
     private RentalSystem() {
-        vehicles = new ArrayList<>();
-        customers = new ArrayList<>();
-        rentalHistory = new ArrayList<>();
-        loadData();  // load previously saved data at startup
+        this(false);
+    }
+
+    private RentalSystem(boolean standby) {
+        this(Paths.get(System.getProperty("rental.dataDir", ".")), standby);
+    }
+
+    private RentalSystem(Path dataDir, boolean standby) {
+        if (standby) {
+            claimStandbyDirectory(dataDir);
+        }
+        this.dataDir = dataDir;
+        statusLog = new VehicleStatusLog(dataDir);
+        rentalHistory = new RentalHistory();
+        this.standby = standby;
+        if (standby) {
+            // A standby starts empty; the primary streams its state on connect
+            for (LoadPhase phase : List.of(vehiclesPhase, customersPhase, historyPhase)) {
+                phase.start();
+                phase.finish();
+            }
+            readyNanos = System.nanoTime();
+        } else {
+            loadData();  // load previously saved data at startup
+        }
+        startCompactor();
     }
 
     public static synchronized RentalSystem getInstance() {
@@ -29,84 +103,197 @@ public class RentalSystem {
         return instance;
     }
 
+    // Used by a standby process instead of getInstance()
+    public static synchronized RentalSystem getStandbyInstance() {
+        if (instance == null) {
+            instance = new RentalSystem(true);
+        } else if (!instance.standby) {
+            throw new IllegalStateException("RentalSystem is already running as a primary");
+        }
+        return instance;
+    }
+
+    // Independent instance with its own files and indexes, used by PartitionedRentalSystem
+    static RentalSystem createPartition(Path dataDir) {
+        return new RentalSystem(dataDir, false);
+    }
+
+    // Independent read-only replica, for running a ReplicationStandby inside another process
+    static RentalSystem createStandby(Path dataDir) {
+        return new RentalSystem(dataDir, true);
+    }
+
+    private String dataFile(String name) {
+        return dataDir.resolve(name).toString();
+    }
+
     // ------------------ VEHICLES ------------------
-    public boolean addVehicle(Vehicle vehicle) {
-        if (findVehicleByPlate(vehicle.getLicensePlate()) != null) {
+    public synchronized boolean addVehicle(Vehicle vehicle) {
+        if (rejectWrite()) return false;
+        if (vehicle.getLicensePlate() == null) {
+            System.out.println("Vehicle has no license plate. Vehicle not added.");
+            return false;
+        }
+        if (vehiclesByPlate.putIfAbsent(vehicle.getLicensePlate(), vehicle) != null) {
             System.out.println("Duplicate vehicle license plate. Vehicle not added.");
             return false;
         }
-        vehicles.add(vehicle);
+        publishVehicles(List.of(vehicle));
         saveVehicle(vehicle);
+        for (RentalEventListener listener : listeners) {
+            listener.vehicleAdded(vehicle);
+        }
         System.out.println("Vehicle added successfully.");
         return true;
     }
 
-    public Vehicle findVehicleByPlate(String plate) {
-        for (Vehicle v : vehicles) {
-            if (v.getLicensePlate().equalsIgnoreCase(plate)) {
-                return v;
+    // Adds every vehicle whose plate is not taken and persists them in one sequential write.
+    // Returns the vehicles that were actually added.
+    public synchronized List<Vehicle> addVehicles(List<Vehicle> batch) {
+        List<Vehicle> added = new ArrayList<>();
+        if (rejectWrite()) return added;
+        for (Vehicle vehicle : batch) {
+            if (vehicle.getLicensePlate() != null && vehiclesByPlate.putIfAbsent(vehicle.getLicensePlate(), vehicle) == null) {
+                added.add(vehicle);
             }
         }
-        return null;
+        publishVehicles(added);
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(dataFile("vehicles.txt"), true), BULK_WRITE_BUFFER)) {
+            for (Vehicle vehicle : added) {
+                bw.write(vehicleLine(vehicle));
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            System.out.println("Error saving vehicles: " + e.getMessage());
+        }
+        for (Vehicle vehicle : added) {
+            for (RentalEventListener listener : listeners) {
+                listener.vehicleAdded(vehicle);
+            }
+        }
+        return added;
+    }
+
+    public Vehicle findVehicleByPlate(String plate) {
+        if (plate == null) return null;
+        return vehiclesByPlate.get(plate.toUpperCase());
     }
 
     public void displayVehicles(Vehicle.VehicleStatus status) {
-        if (status == null) {
-            System.out.println("\n=== All Vehicles ===");
-        } else {
-            System.out.println("\n=== " + status + " Vehicles ===");
+        // Rows are chosen and printed with the statuses of one pinned version
+        RentalSnapshot pinned = snapshot;
+        List<Vehicle> vehicles = pinned.getVehicles();
+        ConsoleWriter out = ConsoleWriter.stdout();
+        synchronized (out) {
+            if (status == null) {
+                out.println("\n=== All Vehicles ===");
+            } else {
+                out.println("\n=== " + status + " Vehicles ===");
+            }
+            for (int i = 0; i < vehicles.size(); i++) {
+                Vehicle.VehicleStatus current = pinned.getStatus(i);
+                if (status == null || current == status) {
+                    out.println(vehicles.get(i), current);
+                }
+            }
+            out.flush();
         }
-        for (Vehicle v : vehicles) {
-            if (status == null || v.getStatus() == status) {
-                System.out.println(v); // assumes Vehicle.toString() prints nicely
+    }
+
+    // Changes a vehicle's status outside of rent/return/hold, e.g. for maintenance
+    public synchronized boolean updateVehicleStatus(Vehicle vehicle, Vehicle.VehicleStatus status) {
+        if (rejectWrite()) return false;
+        if (vehicle.getStatus() == Vehicle.VehicleStatus.Held && status != Vehicle.VehicleStatus.Held) {
+            // The pending hold no longer controls the vehicle; its timer and claim must not touch it
+            VehicleHold hold = holds.remove(vehicle.getLicensePlate());
+            if (hold != null) {
+                hold.release();
             }
         }
+        vehicle.setStatus(status);
+        publishStatus(vehicle);
+        fireStatusChanged(vehicle);
+        return true;
     }
 
     private void saveVehicle(Vehicle vehicle) {
-        try (FileWriter fw = new FileWriter("vehicles.txt", true);
+        try (FileWriter fw = new FileWriter(dataFile("vehicles.txt"), true);
              BufferedWriter bw = new BufferedWriter(fw);
              PrintWriter out = new PrintWriter(bw)) {
 
-            out.println(vehicle.getInfo() + "," +
-                        vehicle.getLicensePlate() + "," +
-                        vehicle.getMake() + "," +
-                        vehicle.getModel() + "," +
-                        vehicle.getYear() + "," +
-                        vehicle.getStatus());
+            out.println(vehicleLine(vehicle));
 
         } catch (IOException e) {
             System.out.println("Error saving vehicle: " + e.getMessage());
         }
     }
 
+    private String vehicleLine(Vehicle vehicle) {
+        return vehicleLine(vehicle, vehicle.getStatus());
+    }
+
+    // Stored as a replication bootstrap entry so the subtype and its fields survive a restart
+    private String vehicleLine(Vehicle vehicle, Vehicle.VehicleStatus status) {
+        return "0\t" + ReplicationEntry.vehicle(vehicle, status);
+    }
+
     // ------------------ CUSTOMERS ------------------
-    public boolean addCustomer(Customer customer) {
-        if (findCustomerById(customer.getCustomerId()) != null) {
+    public synchronized boolean addCustomer(Customer customer) {
+        if (rejectWrite()) return false;
+        if (customersById.putIfAbsent(customer.getCustomerId(), customer) != null) {
             System.out.println("Duplicate customer ID. Customer not added.");
             return false;
         }
-        customers.add(customer);
+        snapshot = snapshot.withCustomers(List.of(customer));
         saveCustomer(customer);
+        for (RentalEventListener listener : listeners) {
+            listener.customerAdded(customer);
+        }
         System.out.println("Customer added successfully.");
         return true;
     }
 
-    public Customer findCustomerById(int id) {
-        for (Customer c : customers) {
-            if (c.getCustomerId() == id) return c;
+    public synchronized List<Customer> addCustomers(List<Customer> batch) {
+        List<Customer> added = new ArrayList<>();
+        if (rejectWrite()) return added;
+        for (Customer customer : batch) {
+            if (customersById.putIfAbsent(customer.getCustomerId(), customer) == null) {
+                added.add(customer);
+            }
+        }
+        snapshot = snapshot.withCustomers(added);
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(dataFile("customers.txt"), true), BULK_WRITE_BUFFER)) {
+            for (Customer customer : added) {
+                bw.write(customer.getCustomerId() + "," + customer.getCustomerName());
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            System.out.println("Error saving customers: " + e.getMessage());
         }
-        return null;
+        for (Customer customer : added) {
+            for (RentalEventListener listener : listeners) {
+                listener.customerAdded(customer);
+            }
+        }
+        return added;
+    }
+
+    public Customer findCustomerById(int id) {
+        return customersById.get(id);
     }
 
     public void displayAllCustomers() {
-        for (Customer c : customers) {
-            System.out.println(c); // assumes Customer.toString() prints nicely
+        ConsoleWriter out = ConsoleWriter.stdout();
+        synchronized (out) {
+            for (Customer c : snapshot.getCustomers()) {
+                out.println(c);
+            }
+            out.flush();
         }
     }
 
     private void saveCustomer(Customer customer) {
-        try (FileWriter fw = new FileWriter("customers.txt", true);
+        try (FileWriter fw = new FileWriter(dataFile("customers.txt"), true);
              BufferedWriter bw = new BufferedWriter(fw)) {
 
             bw.write(customer.getCustomerId() + "," + customer.getCustomerName());
@@ -119,12 +306,13 @@ public class RentalSystem {
 
  // ------------------ RENTAL ------------------
     public boolean rentVehicle(Vehicle vehicle, Customer customer, LocalDate date, double amount) {
-        if (vehicle.getStatus() == Vehicle.VehicleStatus.Available) {
-            vehicle.setStatus(Vehicle.VehicleStatus.Rented);
-            RentalRecord record = new RentalRecord(vehicle, customer, date, amount, "RENT");
-            rentalHistory.add(record);
-            saveRecord(record);
-            System.out.println("Vehicle rented to " + customer.getCustomerName());
+        return rentVehicle(vehicle, customer, date, amount, date.plusDays(DEFAULT_RENTAL_DAYS));
+    }
+
+    public synchronized boolean rentVehicle(Vehicle vehicle, Customer customer, LocalDate date, double amount, LocalDate dueDate) {
+        if (rejectWrite()) return false;
+        if (vehicle.transitionStatus(Vehicle.VehicleStatus.Available, Vehicle.VehicleStatus.Rented)) {
+            recordRental(vehicle, customer, date, amount, dueDate);
             return true;
         } else {
             System.out.println("Vehicle is not available.");
@@ -132,12 +320,43 @@ public class RentalSystem {
         }
     }
 
+    private void recordRental(Vehicle vehicle, Customer customer, LocalDate date, double amount, LocalDate dueDate) {
+        RentalRecord record = new RentalRecord(vehicle, customer, date, amount, "RENT", dueDate);
+        rentalHistory.addRecord(record);
+        openRentals.opened(record);
+        publishStatus(vehicle);
+        invalidateHistory(record);
+        saveRecord(record);
+        for (RentalEventListener listener : listeners) {
+            listener.vehicleRented(record);
+        }
+        System.out.println("Vehicle rented to " + customer.getCustomerName());
+    }
+
     public boolean returnVehicle(Vehicle vehicle, Customer customer, LocalDate date, double extraFees) {
-        if (vehicle.getStatus() == Vehicle.VehicleStatus.Rented) {
-            vehicle.setStatus(Vehicle.VehicleStatus.Available);
+        findOpenRental(vehicle); // waits outside the lock if the history is still being indexed
+        synchronized (this) {
+            return completeReturn(vehicle, customer, date, extraFees);
+        }
+    }
+
+    private boolean completeReturn(Vehicle vehicle, Customer customer, LocalDate date, double extraFees) {
+        if (rejectWrite()) return false;
+        RentalRecord open = openRentals.findByVehicle(vehicle.getLicensePlate());
+        if (open != null && open.getCustomer().getCustomerId() != customer.getCustomerId()) {
+            System.out.println("Vehicle was not rented by " + customer.getCustomerName() + ".");
+            return false;
+        }
+        if (vehicle.transitionStatus(Vehicle.VehicleStatus.Rented, Vehicle.VehicleStatus.Available)) {
             RentalRecord record = new RentalRecord(vehicle, customer, date, extraFees, "RETURN");
-            rentalHistory.add(record);
+            rentalHistory.addRecord(record);
+            openRentals.closed(vehicle.getLicensePlate());
+            publishStatus(vehicle);
+            invalidateHistory(record);
             saveRecord(record);
+            for (RentalEventListener listener : listeners) {
+                listener.vehicleReturned(record);
+            }
             System.out.println("Vehicle returned by " + customer.getCustomerName());
             return true;
         } else {
@@ -146,26 +365,63 @@ public class RentalSystem {
         }
     }
 
+    // Active RENT record for the vehicle, or null; waits for the history load if it has not been indexed yet
+    public RentalRecord findOpenRental(Vehicle vehicle) {
+        RentalRecord open = openRentals.findByVehicle(vehicle.getLicensePlate());
+        if (open == null && !historyPhase.isFinished()) {
+            awaitHistoryLoaded();
+            open = openRentals.findByVehicle(vehicle.getLicensePlate());
+        }
+        return open;
+    }
+
+    public List<RentalRecord> findOpenRentals(Customer customer) {
+        awaitHistoryLoaded();
+        return openRentals.findByCustomer(customer.getCustomerId());
+    }
+
+    public List<RentalRecord> findOverdueRentals(LocalDate today) {
+        awaitHistoryLoaded();
+        return openRentals.findOverdue(today);
+    }
+
+    private void awaitHistoryLoaded() {
+        try {
+            historyPhase.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public RentalHistory getRentalHistory() {
+        return rentalHistory;
+    }
 
     public void displayRentalHistory() {
-        if (rentalHistory.isEmpty()) {
+        awaitHistoryLoaded();
+        RentalHistory history = snapshot.getHistory();
+        if (!history.isComplete()) {
+            System.out.println("(rental history still loading, showing partial results)");
+        }
+        List<RentalRecord> records = history.getRentalHistory();
+        if (records.isEmpty()) {
             System.out.println("No rental history.");
         } else {
-            for (RentalRecord r : rentalHistory) {
-                System.out.println(r); // assumes RentalRecord.toString() prints nicely
+            ConsoleWriter out = ConsoleWriter.stdout();
+            synchronized (out) {
+                for (RentalRecord r : records) {
+                    out.println(r);
+                }
+                out.flush();
             }
         }
     }
 
     private void saveRecord(RentalRecord record) {
-        try (FileWriter fw = new FileWriter("rental_records.txt", true);
+        try (FileWriter fw = new FileWriter(dataFile("rental_records.txt"), true);
              BufferedWriter bw = new BufferedWriter(fw)) {
 
-            bw.write(record.getRecordType() + "," +
-                     record.getVehicle().getLicensePlate() + "," +
-                     record.getCustomer().getCustomerName() + "," +
-                     record.getRecordDate() + "," +
-                     record.getTotalAmount());
+            bw.write(recordLine(record));
             bw.newLine();
 
         } catch (IOException e) {
@@ -173,18 +429,467 @@ public class RentalSystem {
         }
     }
 
+    private String recordLine(RentalRecord record) {
+        return record.getRecordType() + "," +
+               record.getVehicle().getLicensePlate() + "," +
+               record.getCustomer().getCustomerName() + "," +
+               record.getRecordDate() + "," +
+               record.getTotalAmount() + "," +
+               (record.getDueDate() != null ? record.getDueDate() : "-") + "," +
+               record.getCustomer().getCustomerId();
+    }
+
+    // ------------------ HOLDS ------------------
+    public synchronized VehicleHold holdVehicle(Vehicle vehicle, Customer customer, Duration duration) {
+        if (rejectWrite()) return null;
+        if (!vehicle.transitionStatus(Vehicle.VehicleStatus.Available, Vehicle.VehicleStatus.Held)) {
+            System.out.println("Vehicle is not available.");
+            return null;
+        }
+        publishStatus(vehicle);
+        fireStatusChanged(vehicle);
+        VehicleHold hold = new VehicleHold(vehicle, customer, System.nanoTime() + duration.toNanos());
+        holds.put(vehicle.getLicensePlate(), hold);
+        holdScheduler.schedule(hold);
+        System.out.println("Vehicle held for " + customer.getCustomerName());
+        return hold;
+    }
+
+    public VehicleHold findHold(Vehicle vehicle) {
+        return holds.get(vehicle.getLicensePlate());
+    }
+
+    // Converts a pending hold into a rental; loses cleanly if the hold expired first
+    public synchronized boolean rentHeldVehicle(VehicleHold hold, LocalDate date, double amount) {
+        if (rejectWrite()) return false;
+        if (!hold.claim()) {
+            System.out.println("Hold has expired or was released.");
+            return false;
+        }
+        Vehicle vehicle = hold.getVehicle();
+        // Only the vehicle's current hold may move it; an older one lost control when it was superseded
+        if (!holds.remove(vehicle.getLicensePlate(), hold)
+                || !vehicle.transitionStatus(Vehicle.VehicleStatus.Held, Vehicle.VehicleStatus.Rented)) {
+            // Status was changed (e.g. to maintenance) while the hold was pending; the hold is gone
+            System.out.println("Vehicle is no longer held.");
+            return false;
+        }
+        recordRental(vehicle, hold.getCustomer(), date, amount, date.plusDays(DEFAULT_RENTAL_DAYS));
+        return true;
+    }
+
+    public synchronized boolean releaseHold(VehicleHold hold) {
+        if (rejectWrite()) return false;
+        if (!hold.release()) {
+            return false;
+        }
+        Vehicle vehicle = hold.getVehicle();
+        if (!holds.remove(vehicle.getLicensePlate(), hold)) {
+            return false;
+        }
+        if (vehicle.transitionStatus(Vehicle.VehicleStatus.Held, Vehicle.VehicleStatus.Available)) {
+            publishStatus(vehicle);
+            fireStatusChanged(vehicle);
+        }
+        return true;
+    }
+
+    private synchronized void expireHold(VehicleHold hold) {
+        if (!hold.expire()) {
+            return;
+        }
+        Vehicle vehicle = hold.getVehicle();
+        if (holds.remove(vehicle.getLicensePlate(), hold)
+                && vehicle.transitionStatus(Vehicle.VehicleStatus.Held, Vehicle.VehicleStatus.Available)) {
+            publishStatus(vehicle);
+            fireStatusChanged(vehicle);
+            for (RentalEventListener listener : listeners) {
+                listener.holdExpired(hold);
+            }
+        }
+    }
+
+    // ------------------ SNAPSHOTS ------------------
+    // Current consistent version; callers may keep it as long as they like
+    public RentalSnapshot snapshot() {
+        return snapshot;
+    }
+
+    // Callers hold the RentalSystem monitor
+    private void publishVehicles(List<Vehicle> added) {
+        int slot = snapshot.getVehicles().size();
+        for (Vehicle vehicle : added) {
+            vehicleSlots.putIfAbsent(vehicle.getLicensePlate(), slot++);
+        }
+        snapshot = snapshot.withVehicles(added);
+        for (Vehicle vehicle : added) {
+            invalidateStatus(vehicle.getStatus(), vehicle.getSpec().getSubtype());
+            invalidateStatus(null, vehicle.getSpec().getSubtype());
+        }
+    }
+
+    private void publishStatus(Vehicle vehicle) {
+        RentalSnapshot next = snapshot;
+        Vehicle.VehicleStatus previous = null;
+        Integer slot = vehicleSlots.get(vehicle.getLicensePlate());
+        // Vehicles that were never added to the system have no slot
+        if (slot != null && vehiclesByPlate.get(vehicle.getLicensePlate()) == vehicle) {
+            previous = next.getStatus(slot);
+            next = next.withStatus(slot, vehicle.getStatus());
+            statusLog.append(vehicle);
+        }
+        snapshot = next.withHistory(rentalHistory.records(), rentalHistory.isComplete());
+        if (previous != null && previous != vehicle.getStatus()) {
+            invalidateStatus(previous, vehicle.getSpec().getSubtype());
+            invalidateStatus(vehicle.getStatus(), vehicle.getSpec().getSubtype());
+        }
+    }
+
+    // ------------------ QUERY CACHE ------------------
+    // Vehicles by status and subtype (class name such as "Car"); null means any
+    public List<Vehicle> findVehicles(Vehicle.VehicleStatus status, String subtype) {
+        return queryCache.get("vehicles|" + status + "|" + subtype, Set.of(statusTag(status, subtype)), () -> {
+            List<Vehicle> result = new ArrayList<>();
+            for (Vehicle v : snapshot.getVehicles(status)) {
+                if (subtype == null || v.getSpec().getSubtype().equals(subtype)) {
+                    result.add(v);
+                }
+            }
+            return result;
+        });
+    }
+
+    public List<RentalRecord> getRentalRecordsByVehicle(String licensePlate) {
+        String plate = licensePlate.toUpperCase();
+        RentalHistory history = snapshot.getHistory();
+        if (!history.isComplete()) {
+            return history.getRentalRecordsByVehicle(plate); // partial results are not cached
+        }
+        return queryCache.get("plate|" + plate, Set.of("plate:" + plate),
+                              () -> snapshot.getHistory().getRentalRecordsByVehicle(plate));
+    }
+
+    public List<RentalRecord> getRentalRecordsByCustomer(Customer customer) {
+        int id = customer.getCustomerId();
+        RentalHistory history = snapshot.getHistory();
+        if (!history.isComplete()) {
+            return history.getRentalRecordsByCustomerId(id);
+        }
+        return queryCache.get("customer|" + id, Set.of("customer:" + id),
+                              () -> snapshot.getHistory().getRentalRecordsByCustomerId(id));
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    private static String statusTag(Vehicle.VehicleStatus status, String subtype) {
+        return "status:" + (status == null ? "*" : status) + ":" + (subtype == null ? "*" : subtype);
+    }
+
+    // Call after publishing the new snapshot so a concurrent miss cannot cache the old one
+    private void invalidateStatus(Vehicle.VehicleStatus status, String subtype) {
+        queryCache.invalidate(statusTag(status, subtype));
+        queryCache.invalidate(statusTag(status, null));
+    }
+
+    private void invalidateHistory(RentalRecord record) {
+        queryCache.invalidate("plate:" + record.getVehicle().getLicensePlate());
+        queryCache.invalidate("customer:" + record.getCustomer().getCustomerId());
+    }
+
+    // ------------------ COMPACTION ------------------
+    private void startCompactor() {
+        long interval = Long.getLong("rental.compactionIntervalSeconds", 300);
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vehicles-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            boolean dirty;
+            synchronized (this) {
+                dirty = statusLog.getEntries() > 0;
+            }
+            if (dirty) compactVehicles();
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // Stops the background threads of an instance that is no longer used (see PartitionedRentalSystem.close)
+    void shutdown() {
+        compactor.shutdownNow();
+        holdScheduler.shutdown();
+        synchronized (this) {
+            try {
+                statusLog.close();
+            } catch (IOException e) {
+                System.out.println("Error closing vehicle status log: " + e.getMessage());
+            }
+        }
+    }
+
+    // Rewrites vehicles.txt with every vehicle's current state and truncates the status log.
+    // Writers are only blocked for the log rotation and the final rename, not the rewrite.
+    public void compactVehicles() {
+        synchronized (compactionLock) {
+            RentalSnapshot pinned;
+            synchronized (this) {
+                try {
+                    statusLog.rotate();
+                } catch (IOException e) {
+                    System.out.println("Error rotating vehicle status log: " + e.getMessage());
+                    return;
+                }
+                pinned = snapshot;
+            }
+
+            // Statuses that change from here on also go to the new log, which is replayed on top
+            Path compacted = dataDir.resolve("vehicles.txt.compacting");
+            if (!writeVehicles(compacted, pinned, 0, pinned.getVehicles().size(), false)) return;
+
+            synchronized (this) {
+                RentalSnapshot latest = snapshot;
+                List<Vehicle> current = latest.getVehicles();
+                List<Vehicle> pinnedVehicles = pinned.getVehicles();
+                if (current.size() < pinnedVehicles.size()
+                        || (!pinnedVehicles.isEmpty() && current.get(0) != pinnedVehicles.get(0))) {
+                    return; // state was reset underneath us (standby re-sync)
+                }
+                // Vehicles added during the rewrite were appended to the old file
+                if (!writeVehicles(compacted, latest, pinnedVehicles.size(), current.size(), true)) return;
+                try {
+                    Files.move(compacted, dataDir.resolve("vehicles.txt"),
+                               StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    statusLog.compactionFinished();
+                } catch (IOException e) {
+                    System.out.println("Error replacing vehicles file: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Writes slots [from, to) of the given version, with the statuses that version recorded
+    private boolean writeVehicles(Path file, RentalSnapshot version, int from, int to, boolean append) {
+        List<Vehicle> vehicles = version.getVehicles();
+        try (FileOutputStream fos = new FileOutputStream(file.toString(), append);
+             BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos), BULK_WRITE_BUFFER)) {
+            for (int i = from; i < to; i++) {
+                bw.write(vehicleLine(vehicles.get(i), version.getStatus(i)));
+                bw.newLine();
+            }
+            bw.flush();
+            fos.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error writing compacted vehicles: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ------------------ EVENTS ------------------
+    public void addListener(RentalEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(RentalEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireStatusChanged(Vehicle vehicle) {
+        for (RentalEventListener listener : listeners) {
+            listener.statusChanged(vehicle);
+        }
+    }
+
+    // ------------------ REPLICATION ------------------
+    public boolean isStandby() {
+        return standby;
+    }
+
+    private boolean rejectWrite() {
+        if (standby && !replaying) {
+            System.out.println("This is a read-only standby. Change not applied.");
+            return true;
+        }
+        return false;
+    }
+
+    // Runs a replicated mutation through the normal write path on a standby; returns its result
+    synchronized boolean applyReplicated(BooleanSupplier mutation) {
+        replaying = true;
+        try {
+            return mutation.getAsBoolean();
+        } finally {
+            replaying = false;
+        }
+    }
+
+    // Drops all state and files before the primary streams a fresh copy
+    synchronized void resetReplica() {
+        snapshot = RentalSnapshot.empty();
+        queryCache.clear(); // the whole data set is being replaced
+        vehiclesByPlate.clear();
+        vehicleSlots.clear();
+        customersById.clear();
+        rentalHistory = new RentalHistory();
+        openRentals.rebuild(List.of());
+        try {
+            statusLog.reset();
+            for (String name : DATA_FILES) {
+                Files.deleteIfExists(dataDir.resolve(name));
+            }
+        } catch (IOException e) {
+            System.out.println("Error clearing replica files: " + e.getMessage());
+        }
+    }
+
+    // Appends past records during the initial copy; statuses arrive with the vehicles
+    synchronized void restoreRecords(List<RentalRecord> records) {
+        for (RentalRecord record : records) {
+            rentalHistory.addRecord(record);
+            if (record.getRecordType().equals("RENT")) {
+                openRentals.opened(record);
+            } else {
+                openRentals.closed(record.getVehicle().getLicensePlate());
+            }
+        }
+        snapshot = snapshot.withHistory(rentalHistory.records(), true);
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(dataFile("rental_records.txt"), true), BULK_WRITE_BUFFER)) {
+            for (RentalRecord record : records) {
+                invalidateHistory(record);
+                bw.write(recordLine(record));
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            System.out.println("Error saving rental records: " + e.getMessage());
+        }
+    }
+
+    // Stops rejecting writes; called once the standby has caught up
+    synchronized void promote() {
+        standby = false;
+        // Holds were replicated as a status only; without a VehicleHold nothing would ever release them
+        for (Vehicle vehicle : vehiclesByPlate.values()) {
+            if (vehicle.transitionStatus(Vehicle.VehicleStatus.Held, Vehicle.VehicleStatus.Available)) {
+                publishStatus(vehicle);
+                fireStatusChanged(vehicle);
+                System.out.println("Released hold on " + vehicle.getLicensePlate() + " (holds do not survive promotion).");
+            }
+        }
+        try {
+            // The files are primary data now and must not be wiped by a future standby
+            Files.deleteIfExists(dataDir.resolve(STANDBY_MARKER));
+        } catch (IOException e) {
+            System.out.println("Error removing standby marker: " + e.getMessage());
+        }
+    }
+
+    // A standby deletes and rewrites its data files on every bootstrap, so it must never
+    // run in a directory holding a primary's files. The marker records that the directory is ours.
+    private static void claimStandbyDirectory(Path dataDir) {
+        Path marker = dataDir.resolve(STANDBY_MARKER);
+        if (Files.exists(marker)) return;
+        for (String name : DATA_FILES) {
+            if (Files.exists(dataDir.resolve(name))) {
+                throw new IllegalStateException(dataDir.toAbsolutePath() + " holds primary data ("
+                        + name + "); a standby needs its own rental.dataDir");
+            }
+        }
+        try {
+            Files.createDirectories(dataDir);
+            Files.write(marker, List.of("Data directory of a replication standby; its files are replaced on every sync."));
+        } catch (IOException e) {
+            System.out.println("Error writing standby marker: " + e.getMessage());
+        }
+    }
+
     // ------------------ LOAD DATA ------------------
+    // Fleet and customers load up front so rentals can be served right away;
+    // rental records follow on a background thread.
     private void loadData() {
+        vehiclesPhase.start();
         loadVehicles();
+        vehiclesPhase.finish();
+
+        customersPhase.start();
         loadCustomers();
-        loadRentalRecords();
+        customersPhase.finish();
+
+        // Records appended from here on are already in memory; the loader must not read them again
+        try {
+            historyBytes = Files.size(dataDir.resolve("rental_records.txt"));
+        } catch (IOException e) {
+            historyBytes = 0;
+        }
+        readyNanos = System.nanoTime();
+        startHistoryLoader();
+    }
+
+    public List<LoadPhase> getLoadPhases() {
+        return List.of(vehiclesPhase, customersPhase, historyPhase);
+    }
+
+    // Time from construction until rent/return could be served
+    public long getTimeToReadyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(readyNanos - startupNanos);
+    }
+
+    private void startHistoryLoader() {
+        // Index what the loader needs now; the live data keeps changing once we return
+        RentalSnapshot loadedState = snapshot;
+        Map<String, Vehicle> vehiclesByPlate = new HashMap<>();
+        for (Vehicle v : loadedState.getVehicles()) {
+            vehiclesByPlate.putIfAbsent(v.getLicensePlate(), v);
+        }
+        Map<Integer, Customer> customersById = new HashMap<>();
+        Map<String, Customer> customersByName = new HashMap<>();
+        for (Customer c : loadedState.getCustomers()) {
+            customersById.putIfAbsent(c.getCustomerId(), c);
+            customersByName.putIfAbsent(c.getCustomerName(), c);
+        }
+
+        rentalHistory.startLoading();
+        snapshot = snapshot.withHistory(rentalHistory.records(), false);
+        Thread loader = new Thread(() -> {
+            historyPhase.start();
+            List<RentalRecord> loaded = new ArrayList<>();
+            boolean ok = true;
+            try {
+                loadRentalRecords(vehiclesByPlate, customersById, customersByName, loaded);
+            } catch (RuntimeException e) {
+                System.out.println("Error loading rental records: " + e.getMessage());
+                ok = false;
+            }
+            synchronized (this) {
+                rentalHistory.finishLoading(loaded);
+                // Rentals made while loading are already in the history, so a full replay covers them too
+                openRentals.rebuild(rentalHistory.getRentalHistory());
+                snapshot = snapshot.withHistory(rentalHistory.records(), true);
+            }
+            if (ok) {
+                historyPhase.finish();
+            } else {
+                historyPhase.fail();
+            }
+        }, "rental-history-loader");
+        loader.setDaemon(true);
+        loader.start();
     }
 
     private void loadVehicles() {
-        try (BufferedReader br = new BufferedReader(new FileReader("vehicles.txt"))) {
+        List<Vehicle> loaded = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(dataFile("vehicles.txt")))) {
             String line;
             while ((line = br.readLine()) != null) {
+                if (!line.startsWith("|")) {
+                    Vehicle vehicle = ReplicationEntry.parseVehicle(ReplicationEntry.split(line));
+                    loaded.add(vehicle);
+                    vehiclesByPlate.putIfAbsent(vehicle.getLicensePlate(), vehicle);
+                    vehiclesPhase.itemLoaded();
+                    continue;
+                }
 
+                // Lines written before the subtype was stored; these load as four-seat cars
                 line = line.replace("|", "").replace("  ", " ").trim();  // FIX 1
 
                 String[] parts = line.split("\\s+");  // FIX 2
@@ -199,57 +904,101 @@ public class RentalSystem {
                 Vehicle vehicle = new Car(make, model, year, 4);
                 vehicle.setLicensePlate(plate);
                 vehicle.setStatus(status);
-                vehicles.add(vehicle);
+                loaded.add(vehicle);
+                vehiclesByPlate.putIfAbsent(vehicle.getLicensePlate(), vehicle);
+                vehiclesPhase.itemLoaded();
             }
         } catch (IOException e) {
             System.out.println("No vehicles data found.");
         }
+        // vehicles.txt holds each vehicle as of the last compaction; the log has everything since
+        statusLog.replay(vehiclesByPlate);
+        for (Vehicle vehicle : loaded) {
+            // Holds and their timers only live in memory, so a hold does not survive a restart
+            if (vehicle.getStatus() == Vehicle.VehicleStatus.Held) {
+                vehicle.setStatus(Vehicle.VehicleStatus.Available);
+            }
+        }
+        publishVehicles(loaded);
     }
 
 
     void loadCustomers() {
-        try (BufferedReader br = new BufferedReader(new FileReader("customers.txt"))) {
+        List<Customer> loaded = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(dataFile("customers.txt")))) {
             String line;
             while ((line = br.readLine()) != null) {
                 String[] parts = line.split(",", 2);
                 int id = Integer.parseInt(parts[0]);
                 String name = parts[1];
-                customers.add(new Customer(id, name));
+                Customer customer = new Customer(id, name);
+                loaded.add(customer);
+                customersById.putIfAbsent(id, customer);
+                customersPhase.itemLoaded();
             }
         } catch (IOException e) {
             System.out.println("No customers data found.");
         }
+        snapshot = snapshot.withCustomers(loaded);
     }
 
-    private void loadRentalRecords() {
-        try (BufferedReader br = new BufferedReader(new FileReader("rental_records.txt"))) {
+    private void loadRentalRecords(Map<String, Vehicle> vehiclesByPlate, Map<Integer, Customer> customersById,
+                                   Map<String, Customer> customersByName, List<RentalRecord> loaded) {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                new BoundedInputStream(new FileInputStream(dataFile("rental_records.txt")), historyBytes)))) {
             String line;
             while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",", 5);
+                String[] parts = line.split(",", 7);
                 String type = parts[0];
                 String plate = parts[1];
                 String customerName = parts[2];
                 LocalDate date = LocalDate.parse(parts[3]);
                 double amount = Double.parseDouble(parts[4]);
-
-                Vehicle vehicle = findVehicleByPlate(plate);
-                Customer customer = null;
-                for (Customer c : customers) {
-                    if (c.getCustomerName().equals(customerName)) {
-                        customer = c;
-                        break;
-                    }
+                LocalDate dueDate = null;
+                if (type.equals("RENT")) {
+                    // Older files have no due date column
+                    dueDate = parts.length > 5 && !parts[5].equals("-") ? LocalDate.parse(parts[5])
+                                                                         : date.plusDays(DEFAULT_RENTAL_DAYS);
                 }
 
+                Vehicle vehicle = vehiclesByPlate.get(plate);
+                // Older files only have the name, which is ambiguous when two customers share it
+                Customer customer = parts.length > 6 ? customersById.get(Integer.parseInt(parts[6].trim()))
+                                                     : customersByName.get(customerName);
+
                 if (vehicle != null && customer != null) {
-                    rentalHistory.add(new RentalRecord(vehicle, customer, date, amount, type));
+                    loaded.add(new RentalRecord(vehicle, customer, date, amount, type, dueDate));
+                    historyPhase.itemLoaded();
                 }
             }
         } catch (IOException e) {
             System.out.println("No rental records found.");
         }
     }
-}
 
+    // Stops at a fixed byte offset, ignoring anything appended to the file after it was measured
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
 
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
 
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+import java.time.LocalDate;
+
+// Tab-separated wire format for replicated mutations: <sequence> TAB <op> TAB <fields...>
+// Bootstrap entries (the primary's state when a standby connects) carry sequence 0.
+public class ReplicationEntry {
+    public static final String RESET = "RESET";
+    public static final String VEHICLE = "VEHICLE";
+    public static final String CUSTOMER = "CUSTOMER";
+    public static final String RECORD = "RECORD";
+    public static final String SYNCED = "SYNCED";
+    public static final String RENT = "RENT";
+    public static final String RETURN = "RETURN";
+    public static final String STATUS = "STATUS";
+
+    private ReplicationEntry() {
+    }
+
+    // Every field as the primary holds it, so whatever addVehicle accepted can be rebuilt exactly.
+    // VehicleCodec is not used here because it validates import rows more strictly than addVehicle.
+    static String vehicle(Vehicle vehicle, Vehicle.VehicleStatus status) {
+        String type = vehicle.getClass().getSimpleName();
+        String plate = vehicle.getLicensePlate();
+        String year = String.valueOf(vehicle.getYear());
+        if (vehicle instanceof SportCar) {
+            SportCar s = (SportCar) vehicle;
+            return join(VEHICLE, type, plate, vehicle.getMake(), vehicle.getModel(), year, status.name(),
+                        String.valueOf(s.getNumSeats()), String.valueOf(s.getHorsepower()), String.valueOf(s.hasTurbo()));
+        } else if (vehicle instanceof Car) {
+            return join(VEHICLE, type, plate, vehicle.getMake(), vehicle.getModel(), year, status.name(),
+                        String.valueOf(((Car) vehicle).getNumSeats()));
+        } else if (vehicle instanceof Minibus) {
+            return join(VEHICLE, type, plate, vehicle.getMake(), vehicle.getModel(), year, status.name(),
+                        String.valueOf(((Minibus) vehicle).isAccessible()));
+        } else if (vehicle instanceof PickupTruck) {
+            PickupTruck t = (PickupTruck) vehicle;
+            return join(VEHICLE, type, plate, vehicle.getMake(), vehicle.getModel(), year, status.name(),
+                        String.valueOf(t.getCargoSize()), String.valueOf(t.hasTrailer()));
+        }
+        // No way to rebuild an unknown subtype; the standby rejects it and reports itself out of sync
+        return join(VEHICLE, type, plate, vehicle.getMake(), vehicle.getModel(), year, status.name());
+    }
+
+    // Inverse of vehicle(); f is a split VEHICLE entry including the sequence and op fields
+    static Vehicle parseVehicle(String[] f) {
+        String make = f[4];
+        String model = f[5];
+        int year = Integer.parseInt(f[6]);
+        Vehicle vehicle;
+        switch (f[2]) {
+            case "Car":
+                vehicle = new Car(make, model, year, Integer.parseInt(f[8]));
+                break;
+            case "SportCar":
+                vehicle = new SportCar(make, model, year, Integer.parseInt(f[8]), Integer.parseInt(f[9]),
+                                       Boolean.parseBoolean(f[10]));
+                break;
+            case "Minibus":
+                vehicle = new Minibus(make, model, year, Boolean.parseBoolean(f[8]));
+                break;
+            case "PickupTruck":
+                vehicle = new PickupTruck(make, model, year, Double.parseDouble(f[8]), Boolean.parseBoolean(f[9]));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown vehicle type: " + f[2]);
+        }
+        vehicle.setLicensePlate(f[3]);
+        vehicle.setStatus(Vehicle.VehicleStatus.valueOf(f[7]));
+        return vehicle;
+    }
+
+    static String customer(Customer customer) {
+        return join(CUSTOMER, String.valueOf(customer.getCustomerId()), customer.getCustomerName());
+    }
+
+    // A past RENT/RETURN copied during bootstrap
+    static String record(RentalRecord record) {
+        return join(RECORD, record.getRecordType(), record.getVehicle().getLicensePlate(),
+                    String.valueOf(record.getCustomer().getCustomerId()), record.getRecordDate().toString(),
+                    String.valueOf(record.getTotalAmount()),
+                    record.getDueDate() == null ? "-" : record.getDueDate().toString());
+    }
+
+    static String rent(RentalRecord record) {
+        return join(RENT, record.getVehicle().getLicensePlate(), String.valueOf(record.getCustomer().getCustomerId()),
+                    record.getRecordDate().toString(), String.valueOf(record.getTotalAmount()),
+                    record.getDueDate().toString());
+    }
+
+    static String returned(RentalRecord record) {
+        return join(RETURN, record.getVehicle().getLicensePlate(), String.valueOf(record.getCustomer().getCustomerId()),
+                    record.getRecordDate().toString(), String.valueOf(record.getTotalAmount()));
+    }
+
+    static String status(Vehicle vehicle) {
+        return join(STATUS, vehicle.getLicensePlate(), vehicle.getStatus().name());
+    }
+
+    static LocalDate parseDate(String value) {
+        return value.equals("-") ? null : LocalDate.parse(value);
+    }
+
+    static String join(String... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) sb.append('\t');
+            escape(fields[i], sb);
+        }
+        return sb.toString();
+    }
+
+    static String[] split(String line) {
+        String[] fields = line.split("\t", -1);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = unescape(fields[i]);
+        }
+        return fields;
+    }
+
+    private static void escape(String value, StringBuilder sb) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') sb.append("\\\\");
+            else if (c == '\t') sb.append("\\t");
+            else if (c == '\n') sb.append("\\n");
+            else if (c == '\r') sb.append("\\r");
+            else sb.append(c);
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) return value;
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Streams every committed mutation of a RentalSystem to standbys on localhost.
+// A new standby first receives the snapshot current at connect time, then the live log.
+public class ReplicationPrimary implements RentalEventListener {
+    private static final int MAX_BACKLOG = 1_000_000;
+
+    private final RentalSystem rentalSystem;
+    private final ServerSocket server;
+    private final List<Follower> followers = new CopyOnWriteArrayList<>();
+    private long sequence; // guarded by the RentalSystem monitor, which every event fires under
+
+    public ReplicationPrimary(RentalSystem rentalSystem, int port) throws IOException {
+        this.rentalSystem = rentalSystem;
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    public void start() {
+        rentalSystem.addListener(this);
+        Thread acceptor = new Thread(this::acceptLoop, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.out.println("Replication listening on port " + getPort());
+    }
+
+    public void close() {
+        rentalSystem.removeListener(this);
+        try {
+            server.close();
+        } catch (IOException e) {
+            System.out.println("Error closing replication socket: " + e.getMessage());
+        }
+        for (Follower follower : followers) {
+            follower.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                attach(socket);
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.out.println("Replication accept failed: " + e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void attach(Socket socket) throws IOException, InterruptedException {
+        // Bootstrap needs the complete history
+        rentalSystem.getLoadPhases().get(2).await(30, TimeUnit.SECONDS);
+        Follower follower;
+        // Pinning the snapshot and joining the live stream happen atomically w.r.t. writers
+        synchronized (rentalSystem) {
+            follower = new Follower(socket, rentalSystem.snapshot());
+            followers.add(follower);
+        }
+        follower.start();
+    }
+
+    // ------------------ EVENTS ------------------
+    @Override
+    public void vehicleAdded(Vehicle vehicle) {
+        broadcast(ReplicationEntry.vehicle(vehicle, vehicle.getStatus()));
+    }
+
+    @Override
+    public void customerAdded(Customer customer) {
+        broadcast(ReplicationEntry.customer(customer));
+    }
+
+    @Override
+    public void vehicleRented(RentalRecord record) {
+        broadcast(ReplicationEntry.rent(record));
+    }
+
+    @Override
+    public void vehicleReturned(RentalRecord record) {
+        broadcast(ReplicationEntry.returned(record));
+    }
+
+    @Override
+    public void statusChanged(Vehicle vehicle) {
+        broadcast(ReplicationEntry.status(vehicle));
+    }
+
+    private void broadcast(String payload) {
+        String line = (++sequence) + "\t" + payload;
+        for (Follower follower : followers) {
+            if (!follower.queue.offer(line)) {
+                // Too far behind; it will re-bootstrap when it reconnects
+                System.out.println("Standby fell too far behind, disconnecting.");
+                follower.close();
+            }
+        }
+    }
+
+    private class Follower {
+        private final Socket socket;
+        private final RentalSnapshot bootstrap;
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(MAX_BACKLOG);
+
+        Follower(Socket socket, RentalSnapshot bootstrap) {
+            this.socket = socket;
+            this.bootstrap = bootstrap;
+        }
+
+        void start() {
+            Thread sender = new Thread(this::send, "replication-sender-" + socket.getPort());
+            sender.setDaemon(true);
+            sender.start();
+        }
+
+        void close() {
+            followers.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+
+        private void send() {
+            try (BufferedWriter out = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+                out.write("0\t" + ReplicationEntry.RESET + "\n");
+                List<Vehicle> vehicles = bootstrap.getVehicles();
+                for (int i = 0; i < vehicles.size(); i++) {
+                    out.write("0\t" + ReplicationEntry.vehicle(vehicles.get(i), bootstrap.getStatus(i)) + "\n");
+                }
+                for (Customer customer : bootstrap.getCustomers()) {
+                    out.write("0\t" + ReplicationEntry.customer(customer) + "\n");
+                }
+                for (RentalRecord record : bootstrap.getHistory().getRentalHistory()) {
+                    out.write("0\t" + ReplicationEntry.record(record) + "\n");
+                }
+                out.write("0\t" + ReplicationEntry.SYNCED + "\n");
+                out.flush();
+
+                while (!socket.isClosed()) {
+                    String line = queue.poll(1, TimeUnit.SECONDS);
+                    if (line == null) continue;
+                    // Batch whatever else is already queued into the same flush
+                    do {
+                        out.write(line);
+                        out.write('\n');
+                    } while ((line = queue.poll()) != null);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                System.out.println("Standby disconnected: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+    }
+}
@@ -0,0 +1,387 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Applies a primary's replication stream, in order, to a read-only RentalSystem.
+// The bounded queue caps how far the applier can lag, which bounds promotion catch-up time.
+// If the connection drops or an entry cannot be applied, the standby reports itself unsynced,
+// reconnects and takes a fresh bootstrap from the primary.
+public class ReplicationStandby {
+    private static final int MAX_PENDING = 100_000;
+    private static final int BOOTSTRAP_BATCH = 10_000;
+    private static final long RETRY_MILLIS = Long.getLong("rental.replicationRetryMillis", 1000);
+
+    private final RentalSystem rentalSystem;
+    private final String host;
+    private final int port;
+    private final BlockingQueue<String> pending = new ArrayBlockingQueue<>(MAX_PENDING);
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private volatile boolean synced;
+    private volatile boolean connected;
+    private volatile boolean stopped;
+    private Socket socket; // guarded by this
+
+    // Applier thread only
+    private long lastSequence;
+    private boolean broken; // an entry failed; everything up to the next RESET is skipped
+    private final List<Vehicle> vehicleBatch = new ArrayList<>();
+    private final List<Customer> customerBatch = new ArrayList<>();
+    private final List<RentalRecord> recordBatch = new ArrayList<>();
+    private int deferred; // bootstrap entries held in the batches, not yet counted as applied
+
+    public ReplicationStandby(RentalSystem rentalSystem, String host, int port) {
+        this.rentalSystem = rentalSystem;
+        this.host = host;
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        if (!connect()) return;
+        Thread reader = new Thread(this::follow, "replication-receiver");
+        reader.setDaemon(true);
+        reader.start();
+        Thread applier = new Thread(this::applyLoop, "replication-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    // True once a bootstrap has been fully applied and the stream has been followed without error since
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    // Entries received but not yet applied
+    public long getLag() {
+        return received.get() - applied.get();
+    }
+
+    // Stops following the primary, applies whatever was already received and makes the
+    // system writable. Returns the catch-up time in milliseconds, or -1 if it timed out
+    // or the standby was not in sync with the primary.
+    public long promote(Duration maxCatchUp) throws InterruptedException {
+        long start = System.nanoTime();
+        synchronized (this) {
+            stopped = true;
+            closeSocket();
+        }
+        long deadline = start + maxCatchUp.toNanos();
+        while (getLag() > 0) {
+            if (System.nanoTime() > deadline) return -1;
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        if (!synced) return -1;
+        rentalSystem.promote();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private boolean connect() throws IOException {
+        Socket s = new Socket(host, port);
+        synchronized (this) {
+            if (stopped) {
+                s.close();
+                return false;
+            }
+            socket = s;
+            connected = true;
+        }
+        return true;
+    }
+
+    private synchronized void closeSocket() {
+        if (socket == null) return;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    // Receives until the connection ends, then reconnects; the primary always starts with a bootstrap
+    private void follow() {
+        while (!stopped) {
+            receive();
+            if (stopped) return;
+            synced = false; // reads are stale until the next bootstrap has been applied
+            System.out.println("Reconnecting to primary...");
+            while (!stopped) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(RETRY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    if (connect()) break;
+                } catch (IOException e) {
+                    // primary not reachable yet
+                }
+            }
+        }
+    }
+
+    private void receive() {
+        Socket current;
+        synchronized (this) {
+            current = socket;
+        }
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(current.getInputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                received.incrementAndGet();
+                pending.put(line);
+            }
+        } catch (IOException e) {
+            if (!stopped && !current.isClosed()) {
+                System.out.println("Lost connection to primary: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connected = false;
+        }
+    }
+
+    private void applyLoop() {
+        while (true) {
+            String line = pending.poll();
+            if (line == null) {
+                try {
+                    applyBatched(); // nothing else queued, so make the bootstrap so far visible
+                } catch (RuntimeException e) {
+                    resync(e);
+                }
+                try {
+                    line = pending.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            boolean batched = false;
+            try {
+                batched = apply(ReplicationEntry.split(line));
+            } catch (RuntimeException e) {
+                resync(e);
+            } finally {
+                if (!batched) applied.incrementAndGet();
+            }
+        }
+    }
+
+    // Stops applying and asks the primary for a fresh copy instead of skipping the entry
+    private void resync(RuntimeException e) {
+        System.out.println("Standby out of sync with primary (" + e.getMessage() + "), re-synchronising.");
+        synced = false;
+        broken = true;
+        discardBatched();
+        closeSocket(); // follow() reconnects and the primary streams a new bootstrap
+    }
+
+    // Returns true if the entry was held back in a bootstrap batch
+    private boolean apply(String[] f) {
+        long seq = Long.parseLong(f[0]);
+        String op = f[1];
+        if (op.equals(ReplicationEntry.RESET)) {
+            discardBatched();
+            broken = false;
+            synced = false;
+            lastSequence = 0;
+            rentalSystem.resetReplica();
+            return false;
+        }
+        if (broken) return false;
+        if (seq > 0) {
+            if (lastSequence > 0 && seq != lastSequence + 1) {
+                throw new IllegalStateException("gap in replication log: expected " + (lastSequence + 1) + ", got " + seq);
+            }
+            lastSequence = seq;
+        }
+        boolean bootstrap = seq == 0 && (op.equals(ReplicationEntry.VEHICLE) || op.equals(ReplicationEntry.CUSTOMER)
+                                         || op.equals(ReplicationEntry.RECORD));
+        if (!bootstrap) {
+            applyBatched();
+        }
+
+        switch (op) {
+            case ReplicationEntry.SYNCED:
+                synced = true;
+                System.out.println("Standby synchronised with primary.");
+                break;
+            case ReplicationEntry.VEHICLE: {
+                Vehicle vehicle = ReplicationEntry.parseVehicle(f);
+                if (bootstrap) return defer(vehicleBatch, vehicle);
+                require(rentalSystem.applyReplicated(() -> !rentalSystem.addVehicles(List.of(vehicle)).isEmpty()),
+                        "vehicle " + vehicle.getLicensePlate());
+                break;
+            }
+            case ReplicationEntry.CUSTOMER: {
+                Customer customer = new Customer(Integer.parseInt(f[2]), f[3]);
+                if (bootstrap) return defer(customerBatch, customer);
+                require(rentalSystem.applyReplicated(() -> !rentalSystem.addCustomers(List.of(customer)).isEmpty()),
+                        "customer " + customer.getCustomerId());
+                break;
+            }
+            case ReplicationEntry.RECORD: {
+                applyBatchedFleet(); // records refer to vehicles and customers still in the batches
+                Vehicle vehicle = requireVehicle(f[3]);
+                Customer customer = requireCustomer(f[4]);
+                return defer(recordBatch, new RentalRecord(vehicle, customer, LocalDate.parse(f[5]),
+                        Double.parseDouble(f[6]), f[2], ReplicationEntry.parseDate(f[7])));
+            }
+            case ReplicationEntry.RENT: {
+                Vehicle vehicle = requireVehicle(f[2]);
+                Customer customer = requireCustomer(f[3]);
+                require(rentalSystem.applyReplicated(() -> {
+                    // The primary may have rented it straight from Held; any other status is a divergence
+                    if (vehicle.getStatus() == Vehicle.VehicleStatus.Held) {
+                        rentalSystem.updateVehicleStatus(vehicle, Vehicle.VehicleStatus.Available);
+                    }
+                    return rentalSystem.rentVehicle(vehicle, customer, LocalDate.parse(f[4]), Double.parseDouble(f[5]),
+                                                    LocalDate.parse(f[6]));
+                }), "rental of " + f[2]);
+                break;
+            }
+            case ReplicationEntry.RETURN: {
+                Vehicle vehicle = requireVehicle(f[2]);
+                Customer customer = requireCustomer(f[3]);
+                require(rentalSystem.applyReplicated(() -> rentalSystem.returnVehicle(vehicle, customer,
+                        LocalDate.parse(f[4]), Double.parseDouble(f[5]))), "return of " + f[2]);
+                break;
+            }
+            case ReplicationEntry.STATUS: {
+                Vehicle vehicle = requireVehicle(f[2]);
+                require(rentalSystem.applyReplicated(() -> rentalSystem.updateVehicleStatus(vehicle,
+                        Vehicle.VehicleStatus.valueOf(f[3]))), "status of " + f[2]);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("unknown replication entry: " + op);
+        }
+        return false;
+    }
+
+    // ------------------ BOOTSTRAP BATCHES ------------------
+    // Bootstrap entries are written in batches so each one does not reopen the data files
+    private <T> boolean defer(List<T> batch, T item) {
+        batch.add(item);
+        deferred++;
+        if (deferred >= BOOTSTRAP_BATCH) {
+            applyBatched();
+        }
+        return true;
+    }
+
+    private void applyBatchedFleet() {
+        if (!vehicleBatch.isEmpty()) {
+            List<Vehicle> batch = new ArrayList<>(vehicleBatch);
+            vehicleBatch.clear();
+            require(rentalSystem.applyReplicated(() -> rentalSystem.addVehicles(batch).size() == batch.size()),
+                    batch.size() + " bootstrap vehicles");
+        }
+        if (!customerBatch.isEmpty()) {
+            List<Customer> batch = new ArrayList<>(customerBatch);
+            customerBatch.clear();
+            require(rentalSystem.applyReplicated(() -> rentalSystem.addCustomers(batch).size() == batch.size()),
+                    batch.size() + " bootstrap customers");
+        }
+    }
+
+    private void applyBatched() {
+        applyBatchedFleet();
+        if (!recordBatch.isEmpty()) {
+            rentalSystem.restoreRecords(new ArrayList<>(recordBatch));
+            recordBatch.clear();
+        }
+        applied.addAndGet(deferred);
+        deferred = 0;
+    }
+
+    private void discardBatched() {
+        vehicleBatch.clear();
+        customerBatch.clear();
+        recordBatch.clear();
+        applied.addAndGet(deferred);
+        deferred = 0;
+    }
+
+    private static void require(boolean ok, String what) {
+        if (!ok) throw new IllegalStateException("could not apply " + what);
+    }
+
+    private Vehicle requireVehicle(String plate) {
+        Vehicle vehicle = rentalSystem.findVehicleByPlate(plate);
+        if (vehicle == null) throw new IllegalStateException("unknown vehicle " + plate);
+        return vehicle;
+    }
+
+    private Customer requireCustomer(String id) {
+        Customer customer = rentalSystem.findCustomerById(Integer.parseInt(id));
+        if (customer == null) throw new IllegalStateException("unknown customer " + id);
+        return customer;
+    }
+
+    // Usage: java -Drental.dataDir=<dir> ReplicationStandby <port> [host]
+    // Commands: available | status <plate> | history <plate> | lag | promote | quit
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("rental.dataDir") == null) {
+            // The default "." is usually the primary's directory, whose files a bootstrap would replace
+            System.out.println("Set -Drental.dataDir to a directory of its own for the standby.");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        String host = args.length > 1 ? args[1] : "localhost";
+
+        RentalSystem rentalSystem = RentalSystem.getStandbyInstance();
+        ReplicationStandby standby = new ReplicationStandby(rentalSystem, host, port);
+        standby.start();
+
+        Scanner scanner = new Scanner(System.in);
+        while (scanner.hasNextLine()) {
+            String[] cmd = scanner.nextLine().trim().split("\\s+");
+            switch (cmd[0]) {
+                case "available":
+                    rentalSystem.displayVehicles(Vehicle.VehicleStatus.Available);
+                    break;
+                case "status": {
+                    Vehicle vehicle = rentalSystem.findVehicleByPlate(cmd[1]);
+                    System.out.println(vehicle == null ? "Vehicle not found." : vehicle.getLicensePlate() + " " + vehicle.getStatus());
+                    break;
+                }
+                case "history":
+                    for (RentalRecord record : rentalSystem.getRentalHistory().getRentalRecordsByVehicle(cmd[1])) {
+                        System.out.println(record);
+                    }
+                    break;
+                case "lag":
+                    System.out.println("Synced: " + standby.isSynced() + " | Connected: " + standby.isConnected()
+                                       + " | Lag: " + standby.getLag());
+                    break;
+                case "promote": {
+                    long millis = standby.promote(Duration.ofSeconds(30));
+                    System.out.println(millis < 0 ? "Promotion failed: catch-up timed out or standby not in sync."
+                                                  : "Promoted to primary after " + millis + " ms catch-up.");
+                    break;
+                }
+                case "quit":
+                    return;
+                default:
+                    System.out.println("Unknown command.");
+            }
+        }
+    }
+}
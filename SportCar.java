@@ -8,8 +8,17 @@ public final class SportCar extends Car {
         this.hasTurbo = hasTurbo;
     }
 
+    public int getHorsepower() {
+        return horsepower;
+    }
+
+    public boolean hasTurbo() {
+        return hasTurbo;
+    }
+
     @Override
-    public String getInfo() {
-        return super.getInfo() + " | Horsepower: " + horsepower + " | Turbo: " + (hasTurbo ? "Yes" : "No");
+    public void appendTo(StringBuilder out, VehicleStatus status) {
+        super.appendTo(out, status);
+        out.append(" | Horsepower: ").append(horsepower).append(" | Turbo: ").append(hasTurbo ? "Yes" : "No");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Dictionary encoder: each distinct string is stored once and referred to by an int code.
+// Code 0 is reserved for null.
+public class StringDictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile String[] values = new String[16];
+    private int size = 1;
+
+    public synchronized int encode(String value) {
+        if (value == null) return 0;
+        Integer code = codes.get(value);
+        if (code != null) return code;
+
+        String[] current = values;
+        if (size == current.length) {
+            String[] grown = new String[current.length * 2];
+            System.arraycopy(current, 0, grown, 0, size);
+            current = grown;
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+
+    // Returns the shared instance equal to value
+    public String intern(String value) {
+        return decode(encode(value));
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    public synchronized int size() {
+        return size - 1;
+    }
+}
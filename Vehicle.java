@@ -1,24 +1,15 @@
-public abstract class Vehicle {
+public abstract class Vehicle implements Renderable {
     private String licensePlate;
-    private String make;
-    private String model;
-    private int year;
-    private VehicleStatus status;
+    private final int specId; // make/model/year live in the shared VehicleCatalog
+    private volatile VehicleStatus status;
 
     public enum VehicleStatus { Available, Held, Rented, UnderMaintenance, OutOfService }
 
     public Vehicle(String make, String model, int year) {
-        this.make = capitalize(make);
-        this.model = capitalize(model);
-        this.year = year;
+        this.specId = VehicleCatalog.getInstance().resolve(make, model, year, getClass().getSimpleName());
         this.status = VehicleStatus.Available;
     }
 
-    private String capitalize(String input) {
-        if (input == null || input.isEmpty()) return null;
-        return input.substring(0,1).toUpperCase() + input.substring(1).toLowerCase();
-    }
-
     public void setLicensePlate(String plate) {
         if (!isValidPlate(plate)) {
             throw new IllegalArgumentException("Invalid license plate: " + plate);
@@ -31,15 +22,44 @@ public abstract class Vehicle {
         return plate.matches("[A-Z]{3}\\d{3}"); // Three letters + three numbers
     }
 
-    public void setStatus(VehicleStatus status) { this.status = status; }
+    public synchronized void setStatus(VehicleStatus status) { this.status = status; }
+
+    // Atomically moves the vehicle from one status to another; false if it was not in the expected status
+    public synchronized boolean transitionStatus(VehicleStatus expected, VehicleStatus next) {
+        if (status != expected) return false;
+        status = next;
+        return true;
+    }
 
     public String getLicensePlate() { return licensePlate; }
-    public String getMake() { return make; }
-    public String getModel() { return model; }
-    public int getYear() { return year; }
+    public int getSpecId() { return specId; }
+    public VehicleSpec getSpec() { return VehicleCatalog.getInstance().getSpec(specId); }
+    public String getMake() { return getSpec().getMake(); }
+    public String getModel() { return getSpec().getModel(); }
+    public int getYear() { return getSpec().getYear(); }
     public VehicleStatus getStatus() { return status; }
 
     public String getInfo() {
-        return "| " + licensePlate + " | " + make + " | " + model + " | " + year + " | " + status + " |";
+        StringBuilder info = new StringBuilder(64);
+        appendTo(info);
+        return info.toString();
+    }
+
+    @Override
+    public void appendTo(StringBuilder out) {
+        appendTo(out, status);
+    }
+
+    // Renders the vehicle as it was when it had the given status, e.g. in a pinned snapshot.
+    // Subclasses append their own columns after calling super.
+    public void appendTo(StringBuilder out, VehicleStatus status) {
+        VehicleSpec spec = getSpec();
+        out.append("| ").append(licensePlate).append(" | ").append(spec.getMake()).append(" | ").append(spec.getModel())
+           .append(" | ").append(spec.getYear()).append(" | ").append(status).append(" |");
+    }
+
+    @Override
+    public String toString() {
+        return getInfo();
     }
 }
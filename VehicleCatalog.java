@@ -0,0 +1,83 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Flyweight catalog of vehicle specs. Vehicles keep only a spec id; make and model
+// strings are interned once through a dictionary encoder.
+public class VehicleCatalog {
+    private static final VehicleCatalog instance = new VehicleCatalog();
+
+    private static final int NAME_BITS = 20;
+    private static final int YEAR_BITS = 16;
+    private static final int SUBTYPE_BITS = 8;
+
+    private final StringDictionary names = new StringDictionary();
+    private final StringDictionary subtypes = new StringDictionary();
+    private final Map<Long, Integer> specIds = new HashMap<>();
+    private volatile VehicleSpec[] specs = new VehicleSpec[64];
+    private int specCount;
+
+    private VehicleCatalog() {
+    }
+
+    public static VehicleCatalog getInstance() {
+        return instance;
+    }
+
+    public synchronized int resolve(String make, String model, int year, String subtype) {
+        int makeCode = names.encode(capitalize(make));
+        int modelCode = names.encode(capitalize(model));
+        int subtypeCode = subtypes.encode(subtype);
+        if (makeCode >= (1 << NAME_BITS) || modelCode >= (1 << NAME_BITS) || subtypeCode >= (1 << SUBTYPE_BITS)) {
+            throw new IllegalStateException("Vehicle catalog is full");
+        }
+        if (year < 0 || year >= (1 << YEAR_BITS)) {
+            throw new IllegalArgumentException("Invalid year: " + year);
+        }
+
+        long key = ((long) makeCode << (NAME_BITS + YEAR_BITS + SUBTYPE_BITS))
+                 | ((long) modelCode << (YEAR_BITS + SUBTYPE_BITS))
+                 | ((long) year << SUBTYPE_BITS)
+                 | subtypeCode;
+        Integer existing = specIds.get(key);
+        if (existing != null) return existing;
+
+        VehicleSpec[] current = specs;
+        if (specCount == current.length) {
+            VehicleSpec[] grown = new VehicleSpec[current.length * 2];
+            System.arraycopy(current, 0, grown, 0, specCount);
+            current = grown;
+        }
+        int id = specCount++;
+        current[id] = new VehicleSpec(id, names.decode(makeCode), names.decode(modelCode), year, subtypes.decode(subtypeCode));
+        specs = current;
+        specIds.put(key, id);
+        return id;
+    }
+
+    public VehicleSpec getSpec(int specId) {
+        return specs[specId];
+    }
+
+    public synchronized int size() {
+        return specCount;
+    }
+
+    public int getDistinctNames() {
+        return names.size();
+    }
+
+    // Only allocates when the input is not already in "Toyota" form
+    static String capitalize(String input) {
+        if (input == null || input.isEmpty()) return null;
+        if (isCapitalized(input)) return input;
+        return input.substring(0,1).toUpperCase() + input.substring(1).toLowerCase();
+    }
+
+    private static boolean isCapitalized(String input) {
+        if (!Character.isUpperCase(input.charAt(0)) && Character.isLetter(input.charAt(0))) return false;
+        for (int i = 1; i < input.length(); i++) {
+            if (Character.isUpperCase(input.charAt(i))) return false;
+        }
+        return true;
+    }
+}
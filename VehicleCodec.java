@@ -0,0 +1,101 @@
+// CSV form of a vehicle: type,plate,make,model,year followed by the subtype's own fields
+//   Car,ABC123,Toyota,Corolla,2019,5
+//   SportCar,SPD001,Porsche,911,2022,2,450,true
+//   Minibus,BUS001,Ford,Transit,2018,true
+//   PickupTruck,TRK001,Ford,F-150,2020,2.5,false
+public class VehicleCodec {
+    private VehicleCodec() {
+    }
+
+    public static Vehicle parse(String line) {
+        String[] f = line.split(",", -1);
+        if (f.length < 5) {
+            throw new IllegalArgumentException("expected at least 5 fields, found " + f.length);
+        }
+        String type = f[0].trim();
+        String plate = f[1].trim().toUpperCase();
+        String make = requireText(f[2], "make");
+        String model = requireText(f[3], "model");
+        int year = parseInt(f[4], "year");
+        if (year < 1886 || year > 9999) {
+            throw new IllegalArgumentException("invalid year: " + year);
+        }
+
+        Vehicle vehicle;
+        switch (type.toLowerCase()) {
+            case "car":
+                expectFields(f, 6, type);
+                vehicle = new Car(make, model, year, parseInt(f[5], "seats"));
+                break;
+            case "sportcar":
+                expectFields(f, 8, type);
+                vehicle = new SportCar(make, model, year, parseInt(f[5], "seats"), parseInt(f[6], "horsepower"),
+                                       parseBoolean(f[7], "turbo"));
+                break;
+            case "minibus":
+                expectFields(f, 6, type);
+                vehicle = new Minibus(make, model, year, parseBoolean(f[5], "accessible"));
+                break;
+            case "pickuptruck":
+                expectFields(f, 7, type);
+                vehicle = new PickupTruck(make, model, year, parseDouble(f[5], "cargo size"), parseBoolean(f[6], "trailer"));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown vehicle type: " + type);
+        }
+        vehicle.setLicensePlate(plate);
+        return vehicle;
+    }
+
+    public static String format(Vehicle vehicle) {
+        String common = vehicle.getClass().getSimpleName() + "," + vehicle.getLicensePlate() + "," +
+                        vehicle.getMake() + "," + vehicle.getModel() + "," + vehicle.getYear();
+        if (vehicle instanceof SportCar) {
+            SportCar s = (SportCar) vehicle;
+            return common + "," + s.getNumSeats() + "," + s.getHorsepower() + "," + s.hasTurbo();
+        } else if (vehicle instanceof Car) {
+            return common + "," + ((Car) vehicle).getNumSeats();
+        } else if (vehicle instanceof Minibus) {
+            return common + "," + ((Minibus) vehicle).isAccessible();
+        } else if (vehicle instanceof PickupTruck) {
+            PickupTruck t = (PickupTruck) vehicle;
+            return common + "," + t.getCargoSize() + "," + t.hasTrailer();
+        }
+        return common;
+    }
+
+    private static void expectFields(String[] fields, int count, String type) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException(type + " expects " + count + " fields, found " + fields.length);
+        }
+    }
+
+    private static String requireText(String value, String field) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) throw new IllegalArgumentException("missing " + field);
+        return trimmed;
+    }
+
+    private static int parseInt(String value, String field) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + field + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String field) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + field + ": " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String value, String field) {
+        String v = value.trim().toLowerCase();
+        if (v.equals("true")) return true;
+        if (v.equals("false")) return false;
+        throw new IllegalArgumentException("invalid " + field + ": " + value);
+    }
+}
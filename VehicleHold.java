@@ -0,0 +1,56 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VehicleHold {
+    private static final int PENDING = 0;
+    private static final int CONVERTED = 1;
+    private static final int EXPIRED = 2;
+    private static final int RELEASED = 3;
+
+    private final Vehicle vehicle;
+    private final Customer customer;
+    private final long deadlineNanos;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+    // Wheel bookkeeping, only touched by the scheduler thread
+    long remainingRounds;
+
+    public VehicleHold(Vehicle vehicle, Customer customer, long deadlineNanos) {
+        this.vehicle = vehicle;
+        this.customer = customer;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public boolean isPending() {
+        return state.get() == PENDING;
+    }
+
+    // Exactly one of claim/expire/release can win for a given hold
+    boolean claim() {
+        return state.compareAndSet(PENDING, CONVERTED);
+    }
+
+    boolean expire() {
+        return state.compareAndSet(PENDING, EXPIRED);
+    }
+
+    boolean release() {
+        return state.compareAndSet(PENDING, RELEASED);
+    }
+
+    @Override
+    public String toString() {
+        return "Hold | Plate: " + vehicle.getLicensePlate() + " | Customer: " + customer.getCustomerName();
+    }
+}
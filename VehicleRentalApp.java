@@ -1,11 +1,22 @@
 import java.util.Scanner;
 import java.time.LocalDate;
+import java.io.IOException;
 
 public class VehicleRentalApp {
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
         RentalSystem rentalSystem = RentalSystem.getInstance(); // Singleton
 
+        // Optional: stream changes to standbys started with ReplicationStandby
+        String replicationPort = System.getProperty("rental.replicationPort");
+        if (replicationPort != null) {
+            try {
+                new ReplicationPrimary(rentalSystem, Integer.parseInt(replicationPort)).start();
+            } catch (IOException e) {
+                System.out.println("Could not start replication: " + e.getMessage());
+            }
+        }
+
         while (true) {
             System.out.println("\n1: Add Vehicle\n2: Add Customer\n3: Rent Vehicle\n4: Return Vehicle\n5: Display Available Vehicles\n6: Show Rental History\n0: Exit\n");
             int choice = scanner.nextInt();
@@ -0,0 +1,27 @@
+// Immutable make/model/year/subtype combination shared by every vehicle of that spec
+public final class VehicleSpec {
+    private final int specId;
+    private final String make;
+    private final String model;
+    private final int year;
+    private final String subtype;
+
+    VehicleSpec(int specId, String make, String model, int year, String subtype) {
+        this.specId = specId;
+        this.make = make;
+        this.model = model;
+        this.year = year;
+        this.subtype = subtype;
+    }
+
+    public int getSpecId() { return specId; }
+    public String getMake() { return make; }
+    public String getModel() { return model; }
+    public int getYear() { return year; }
+    public String getSubtype() { return subtype; }
+
+    @Override
+    public String toString() {
+        return subtype + " " + make + " " + model + " (" + year + ")";
+    }
+}
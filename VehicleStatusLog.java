@@ -0,0 +1,101 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+// Append-only log of vehicle status transitions ("PLATE,Status" per line). Compaction rotates
+// the live log aside, rewrites vehicles.txt, then deletes the rotated file. Callers synchronise.
+public class VehicleStatusLog {
+    private final Path logFile;
+    private final Path rotatedFile;
+    private BufferedWriter writer;
+    private long entries;
+
+    public VehicleStatusLog(Path dataDir) {
+        this.logFile = dataDir.resolve("vehicle_status.log");
+        this.rotatedFile = dataDir.resolve("vehicle_status.log.compacting");
+    }
+
+    public void append(Vehicle vehicle) {
+        try {
+            if (writer == null) {
+                writer = new BufferedWriter(new FileWriter(logFile.toString(), true));
+            }
+            writer.write(vehicle.getLicensePlate() + "," + vehicle.getStatus());
+            writer.newLine();
+            writer.flush();
+            entries++;
+        } catch (IOException e) {
+            System.out.println("Error saving vehicle status: " + e.getMessage());
+        }
+    }
+
+    // Entries written since the last rotation
+    public long getEntries() {
+        return entries;
+    }
+
+    // Applies a rotated log left by an interrupted compaction, then the live log, oldest first
+    public int replay(Map<String, Vehicle> vehiclesByPlate) {
+        return replay(rotatedFile, vehiclesByPlate) + replay(logFile, vehiclesByPlate);
+    }
+
+    private int replay(Path file, Map<String, Vehicle> vehiclesByPlate) {
+        if (!Files.exists(file)) return 0;
+        int applied = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(file.toString()))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",", 2);
+                if (parts.length < 2) continue; // torn last line
+                Vehicle vehicle = vehiclesByPlate.get(parts[0]);
+                if (vehicle != null) {
+                    vehicle.setStatus(Vehicle.VehicleStatus.valueOf(parts[1].trim()));
+                    applied++;
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error reading vehicle status log: " + e.getMessage());
+        }
+        return applied;
+    }
+
+    // Moves the live log aside so the compactor can rewrite vehicles.txt from a pinned snapshot
+    public void rotate() throws IOException {
+        close();
+        if (Files.exists(logFile)) {
+            if (Files.exists(rotatedFile)) {
+                // A previous compaction never finished; keep its entries ahead of ours
+                Files.write(rotatedFile, Files.readAllBytes(logFile), StandardOpenOption.APPEND);
+                Files.delete(logFile);
+            } else {
+                Files.move(logFile, rotatedFile);
+            }
+        }
+        entries = 0;
+    }
+
+    // Called once the compacted vehicles.txt is in place
+    public void compactionFinished() throws IOException {
+        Files.deleteIfExists(rotatedFile);
+    }
+
+    public void reset() throws IOException {
+        close();
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(rotatedFile);
+        entries = 0;
+    }
+
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}